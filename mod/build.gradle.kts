@@ -33,6 +33,10 @@ tasks.test {
   useJUnitPlatform()
   systemProperty("java.util.logging.manager", "com.hypixel.hytale.logger.backend.HytaleLogManager")
   jvmArgs("-XX:+EnableDynamicAgentLoading")
+  // Opt-in benchmarks, e.g. ./gradlew test -Dadminportals.benchmark=true
+  providers.systemProperty("adminportals.benchmark").orNull?.let {
+    systemProperty("adminportals.benchmark", it)
+  }
   testLogging {
     showStandardStreams = true
     events("passed", "skipped", "failed")
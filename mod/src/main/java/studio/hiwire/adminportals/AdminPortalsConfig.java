@@ -0,0 +1,73 @@
+package studio.hiwire.adminportals;
+
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+import lombok.Getter;
+
+/** Plugin-wide settings, stored as {@code AdminPortals.json} in the plugin's data directory. */
+@Getter
+public class AdminPortalsConfig {
+
+  public static final BuilderCodec<AdminPortalsConfig> CODEC;
+
+  /** Distance in blocks from a portal at which its destination chunks start loading. */
+  private double destinationPrewarmRadius = 24.0;
+
+  /** Radius in chunks around the destination chunk that is loaded as well. */
+  private int destinationPrewarmChunkRadius = 1;
+
+  /** Maximum number of portal commands executed per world tick, {@code 0} for no limit. */
+  private int commandDispatchLimitPerTick = 64;
+
+  /**
+   * Time in microseconds portal commands may take per world tick, {@code 0} for no limit. Measured
+   * around each command, time over the budget is taken from the next tick.
+   */
+  private long commandDispatchBudgetMicrosPerTick = 5_000L;
+
+  /**
+   * Tick duration in milliseconds above which low priority portal commands are dropped, {@code 0}
+   * to never drop them. Measured as the time between two consecutive ticks of the world.
+   */
+  private long loadSheddingTickMillis = 50L;
+
+  /** Time in milliseconds after which a command on the async executor is given up on. */
+  private long asyncCommandTimeoutMillis = 10_000L;
+
+  static {
+    CODEC =
+        BuilderCodec.builder(AdminPortalsConfig.class, AdminPortalsConfig::new)
+            .append(
+                new KeyedCodec<>("DestinationPrewarmRadius", Codec.DOUBLE),
+                (o, i) -> o.destinationPrewarmRadius = i,
+                o -> o.destinationPrewarmRadius)
+            .add()
+            .append(
+                new KeyedCodec<>("DestinationPrewarmChunkRadius", Codec.INTEGER),
+                (o, i) -> o.destinationPrewarmChunkRadius = i,
+                o -> o.destinationPrewarmChunkRadius)
+            .add()
+            .append(
+                new KeyedCodec<>("CommandDispatchLimitPerTick", Codec.INTEGER),
+                (o, i) -> o.commandDispatchLimitPerTick = i,
+                o -> o.commandDispatchLimitPerTick)
+            .add()
+            .append(
+                new KeyedCodec<>("CommandDispatchBudgetMicrosPerTick", Codec.LONG),
+                (o, i) -> o.commandDispatchBudgetMicrosPerTick = i,
+                o -> o.commandDispatchBudgetMicrosPerTick)
+            .add()
+            .append(
+                new KeyedCodec<>("LoadSheddingTickMillis", Codec.LONG),
+                (o, i) -> o.loadSheddingTickMillis = i,
+                o -> o.loadSheddingTickMillis)
+            .add()
+            .append(
+                new KeyedCodec<>("AsyncCommandTimeoutMillis", Codec.LONG),
+                (o, i) -> o.asyncCommandTimeoutMillis = i,
+                o -> o.asyncCommandTimeoutMillis)
+            .add()
+            .build();
+  }
+}
@@ -4,10 +4,13 @@ import com.hypixel.hytale.codec.ExtraInfo;
 import com.hypixel.hytale.common.plugin.PluginManifest;
 import com.hypixel.hytale.common.semver.SemverRange;
 import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.ResourceType;
 import com.hypixel.hytale.server.core.modules.interaction.interaction.config.Interaction;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
 import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hypixel.hytale.server.core.util.Config;
 import com.hypixel.hytale.server.core.util.io.FileUtil;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -27,8 +30,25 @@ import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 import studio.hiwire.adminportals.command.AdminPortalsCommand;
 import studio.hiwire.adminportals.component.PortalConfigComponent;
 import studio.hiwire.adminportals.configmode.ConfigurationModeManager;
+import studio.hiwire.adminportals.dispatch.AsyncCommandExecutor;
+import studio.hiwire.adminportals.dispatch.CommandDispatchQueue;
+import studio.hiwire.adminportals.dispatch.CommandDispatchSystem;
 import studio.hiwire.adminportals.interaction.AdminPortalInteraction;
+import studio.hiwire.adminportals.interaction.CooldownDescriptorCache;
 import studio.hiwire.adminportals.placeholder.PlaceholderManager;
+import studio.hiwire.adminportals.portal.PortalConfigCache;
+import studio.hiwire.adminportals.portal.PortalConfigCacheSystem;
+import studio.hiwire.adminportals.portal.PortalCooldowns;
+import studio.hiwire.adminportals.portal.PortalDestinationPrewarmSystem;
+import studio.hiwire.adminportals.portal.PortalDestinationSystem;
+import studio.hiwire.adminportals.portal.PortalDestinations;
+import studio.hiwire.adminportals.portal.PortalIndex;
+import studio.hiwire.adminportals.portal.PortalIndexSystem;
+import studio.hiwire.adminportals.portal.PortalOccupancy;
+import studio.hiwire.adminportals.portal.PortalOccupancySystem;
+import studio.hiwire.adminportals.portal.PortalRateLimiter;
+import studio.hiwire.adminportals.portal.PortalSoundEvents;
+import studio.hiwire.adminportals.portal.PortalValidationService;
 import studio.hiwire.adminportals.util.TranslationFileManager;
 
 public class AdminPortalsPlugin extends JavaPlugin {
@@ -45,19 +65,40 @@ public class AdminPortalsPlugin extends JavaPlugin {
   private static final List<String> SUPPORTED_LANGUAGES = List.of("en-US", "de-DE");
 
   @Getter private ComponentType<ChunkStore, PortalConfigComponent> adminPortalConfigComponentType;
+  @Getter private ResourceType<ChunkStore, PortalIndex> portalIndexResourceType;
+  @Getter private ResourceType<ChunkStore, PortalConfigCache> portalConfigCacheResourceType;
+  @Getter private ResourceType<ChunkStore, PortalDestinations> portalDestinationsResourceType;
+  @Getter private ResourceType<EntityStore, PortalOccupancy> portalOccupancyResourceType;
+  @Getter private ResourceType<EntityStore, PortalRateLimiter> portalRateLimiterResourceType;
+  @Getter private ResourceType<EntityStore, PortalCooldowns> portalCooldownsResourceType;
+  @Getter private ResourceType<EntityStore, CommandDispatchQueue> commandDispatchQueueResourceType;
   @Getter private PlaceholderManager placeholderManager;
   @Getter private ConfigurationModeManager configurationModeManager;
+  @Getter private AsyncCommandExecutor asyncCommandExecutor;
+  @Getter private PortalValidationService portalValidationService;
+  @Getter private CooldownDescriptorCache cooldownDescriptorCache;
+  private PortalSoundEvents portalSoundEvents;
+  private final Config<AdminPortalsConfig> config;
 
   public AdminPortalsPlugin(@NonNullDecl JavaPluginInit init) throws IOException {
     super(init);
+    config = withConfig("AdminPortals", AdminPortalsConfig.CODEC);
     createOverrideModFiles();
   }
 
   @Override
   protected void setup() {
     INSTANCE = this;
+    // Writes the defaults on first start so server owners can find and edit the file
+    config.save();
     placeholderManager = new PlaceholderManager();
     configurationModeManager = new ConfigurationModeManager(getEventRegistry());
+    asyncCommandExecutor = new AsyncCommandExecutor();
+    cooldownDescriptorCache = new CooldownDescriptorCache(getEventRegistry());
+    portalSoundEvents = new PortalSoundEvents(getEventRegistry());
+    portalValidationService = new PortalValidationService(placeholderManager);
+    // Portals may have lost placeholders, e.g. when the plugin providing them was removed
+    placeholderManager.addUnregisterListener(name -> portalValidationService.requestScan());
 
     getCodecRegistry(Interaction.CODEC)
         .register(
@@ -72,19 +113,57 @@ public class AdminPortalsPlugin extends JavaPlugin {
                 "HiWire_AdminPortals_PortalConfig",
                 PortalConfigComponent.CODEC);
 
+    portalIndexResourceType =
+        getChunkStoreRegistry().registerResource(PortalIndex.class, PortalIndex::new);
+    getChunkStoreRegistry().registerSystem(new PortalIndexSystem());
+
+    portalConfigCacheResourceType =
+        getChunkStoreRegistry().registerResource(PortalConfigCache.class, PortalConfigCache::new);
+    getChunkStoreRegistry().registerSystem(new PortalConfigCacheSystem());
+
+    portalDestinationsResourceType =
+        getChunkStoreRegistry().registerResource(PortalDestinations.class, PortalDestinations::new);
+    getChunkStoreRegistry().registerSystem(new PortalDestinationSystem());
+    getChunkStoreRegistry().registerSystem(new PortalDestinationPrewarmSystem());
+
+    portalOccupancyResourceType =
+        getEntityStoreRegistry().registerResource(PortalOccupancy.class, PortalOccupancy::new);
+    getEntityStoreRegistry().registerSystem(new PortalOccupancySystem());
+
+    portalRateLimiterResourceType =
+        getEntityStoreRegistry().registerResource(PortalRateLimiter.class, PortalRateLimiter::new);
+
+    portalCooldownsResourceType =
+        getEntityStoreRegistry().registerResource(PortalCooldowns.class, PortalCooldowns::new);
+
+    commandDispatchQueueResourceType =
+        getEntityStoreRegistry()
+            .registerResource(CommandDispatchQueue.class, CommandDispatchQueue::new);
+    getEntityStoreRegistry().registerSystem(new CommandDispatchSystem());
+
     getCommandRegistry()
-        .registerCommand(new AdminPortalsCommand(placeholderManager, configurationModeManager));
+        .registerCommand(
+            new AdminPortalsCommand(
+                placeholderManager, configurationModeManager, portalValidationService));
   }
 
   @Override
   protected void shutdown() {
     configurationModeManager.shutdown();
+    asyncCommandExecutor.shutdown();
+    portalValidationService.shutdown();
+    cooldownDescriptorCache.shutdown();
+    portalSoundEvents.shutdown();
   }
 
   public static AdminPortalsPlugin get() {
     return INSTANCE;
   }
 
+  public AdminPortalsConfig getPluginConfig() {
+    return config.get();
+  }
+
   private void createOverrideModFiles() throws IOException {
     createOverrideModManifest();
     migrateOldTranslationFiles();
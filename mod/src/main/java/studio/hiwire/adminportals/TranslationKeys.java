@@ -20,5 +20,21 @@ public final class TranslationKeys {
     public static final String PLACEHOLDER_LIST = "PlaceholderList";
     public static final String PLACEHOLDER_AMOUNT = "PlaceholderAmount";
     public static final String PERMISSION = "Permission";
+    public static final String WORLD = "World";
+    public static final String PLACEHOLDER = "Placeholder";
+    public static final String COUNT = "Count";
+    public static final String P50 = "P50";
+    public static final String P99 = "P99";
+    public static final String MAX = "Max";
+    public static final String OWNER = "Owner";
+    public static final String TIMEOUTS = "Timeouts";
+    public static final String PORTAL_AMOUNT = "PortalAmount";
+    public static final String BROKEN_AMOUNT = "BrokenAmount";
+    public static final String DURATION = "Duration";
+    public static final String X = "X";
+    public static final String Y = "Y";
+    public static final String Z = "Z";
+    public static final String SOUND_EFFECT = "SoundEffect";
+    public static final String SECONDS = "Seconds";
   }
 }
@@ -3,13 +3,16 @@ package studio.hiwire.adminportals.command;
 import com.hypixel.hytale.server.core.command.system.basecommands.AbstractCommandCollection;
 import studio.hiwire.adminportals.configmode.ConfigurationModeManager;
 import studio.hiwire.adminportals.placeholder.PlaceholderManager;
+import studio.hiwire.adminportals.portal.PortalValidationService;
 
 public class AdminPortalsCommand extends AbstractCommandCollection {
 
   public AdminPortalsCommand(
-      PlaceholderManager placeholderManager, ConfigurationModeManager configurationModeManager) {
+      PlaceholderManager placeholderManager,
+      ConfigurationModeManager configurationModeManager,
+      PortalValidationService portalValidationService) {
     super("adminportals", "AdminPortals management commands");
-    addSubCommand(new PlaceholderCommand(placeholderManager));
+    addSubCommand(new PlaceholderCommand(placeholderManager, portalValidationService));
     addSubCommand(new ConfigModeCommand(configurationModeManager));
   }
 }
@@ -2,11 +2,15 @@ package studio.hiwire.adminportals.command;
 
 import com.hypixel.hytale.server.core.command.system.basecommands.AbstractCommandCollection;
 import studio.hiwire.adminportals.placeholder.PlaceholderManager;
+import studio.hiwire.adminportals.portal.PortalValidationService;
 
 public class PlaceholderCommand extends AbstractCommandCollection {
 
-  public PlaceholderCommand(PlaceholderManager placeholderManager) {
+  public PlaceholderCommand(
+      PlaceholderManager placeholderManager, PortalValidationService portalValidationService) {
     super("placeholder", "Placeholder management commands");
     addSubCommand(new ListPlaceholdersCommand(placeholderManager));
+    addSubCommand(new PlaceholderStatsCommand(placeholderManager));
+    addSubCommand(new ValidatePlaceholdersCommand(portalValidationService));
   }
 }
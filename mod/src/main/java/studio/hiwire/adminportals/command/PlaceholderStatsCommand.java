@@ -0,0 +1,87 @@
+package studio.hiwire.adminportals.command;
+
+import static studio.hiwire.adminportals.AdminPortalsPlugin.PREFIX;
+import static studio.hiwire.adminportals.TranslationKeys.CHAT_MESSAGES;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.AbstractCommand;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+import studio.hiwire.adminportals.TranslationKeys.Params;
+import studio.hiwire.adminportals.placeholder.PlaceholderManager;
+import studio.hiwire.adminportals.placeholder.PlaceholderStats;
+
+public class PlaceholderStatsCommand extends AbstractCommand {
+
+  private static final String MSG_PLACEHOLDERS_STATS =
+      CHAT_MESSAGES + ".Command.Placeholders.Stats";
+  private static final String MSG_NO_PLACEHOLDERS_RESOLVED =
+      MSG_PLACEHOLDERS_STATS + ".NoPlaceholdersResolved";
+  private static final String MSG_OUTPUT = MSG_PLACEHOLDERS_STATS + ".Output";
+  private static final String MSG_ENTRY = MSG_PLACEHOLDERS_STATS + ".Entry";
+
+  private final PlaceholderManager placeholderManager;
+
+  public PlaceholderStatsCommand(PlaceholderManager placeholderManager) {
+    super("stats", "Show resolve times of all registered placeholders", false);
+    this.placeholderManager = placeholderManager;
+  }
+
+  @NullableDecl
+  @Override
+  protected CompletableFuture<Void> execute(@NonNullDecl CommandContext context) {
+    final var stats =
+        placeholderManager.getStats().stream()
+            .filter(entry -> entry.getCount() > 0)
+            // Slowest first
+            .sorted(
+                Comparator.comparingLong((PlaceholderStats entry) -> entry.getPercentileNanos(99))
+                    .reversed()
+                    .thenComparing(PlaceholderStats::getName))
+            .toList();
+
+    if (stats.isEmpty()) {
+      context
+          .sender()
+          .sendMessage(
+              Message.translation(MSG_NO_PLACEHOLDERS_RESOLVED).param(Params.MOD_PREFIX, PREFIX));
+      return null;
+    }
+
+    context
+        .sender()
+        .sendMessage(
+            Message.translation(MSG_OUTPUT)
+                .param(Params.MOD_PREFIX, PREFIX)
+                .param(Params.PLACEHOLDER_AMOUNT, stats.size()));
+
+    for (final var entry : stats) {
+      context
+          .sender()
+          .sendMessage(
+              Message.translation(MSG_ENTRY)
+                  .param(Params.PLACEHOLDER, "{" + entry.getName() + "}")
+                  .param(Params.COUNT, String.valueOf(entry.getCount()))
+                  .param(Params.P50, formatNanos(entry.getPercentileNanos(50)))
+                  .param(Params.P99, formatNanos(entry.getPercentileNanos(99)))
+                  .param(Params.MAX, formatNanos(entry.getMaxNanos()))
+                  .param(Params.TIMEOUTS, String.valueOf(entry.getTimeouts()))
+                  .param(Params.OWNER, entry.getOwner()));
+    }
+    return null;
+  }
+
+  static String formatNanos(long nanos) {
+    if (nanos < 1_000) {
+      return nanos + " ns";
+    }
+    if (nanos < 1_000_000) {
+      return String.format(Locale.ROOT, "%.1f µs", nanos / 1_000.0);
+    }
+    return String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0);
+  }
+}
@@ -0,0 +1,93 @@
+package studio.hiwire.adminportals.command;
+
+import static studio.hiwire.adminportals.AdminPortalsPlugin.PREFIX;
+import static studio.hiwire.adminportals.TranslationKeys.CHAT_MESSAGES;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.AbstractCommand;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+import studio.hiwire.adminportals.TranslationKeys.Params;
+import studio.hiwire.adminportals.portal.PortalValidationService;
+
+public class ValidatePlaceholdersCommand extends AbstractCommand {
+
+  private static final String MSG_PLACEHOLDERS_VALIDATE =
+      CHAT_MESSAGES + ".Command.Placeholders.Validate";
+  private static final String MSG_STARTED = MSG_PLACEHOLDERS_VALIDATE + ".Started";
+  private static final String MSG_ALL_VALID = MSG_PLACEHOLDERS_VALIDATE + ".AllValid";
+  private static final String MSG_OUTPUT = MSG_PLACEHOLDERS_VALIDATE + ".Output";
+  private static final String MSG_ENTRY = MSG_PLACEHOLDERS_VALIDATE + ".Entry";
+  private static final String MSG_MORE = MSG_PLACEHOLDERS_VALIDATE + ".More";
+  private static final String MSG_FAILED = MSG_PLACEHOLDERS_VALIDATE + ".Failed";
+
+  // Broken portals listed in chat, the rest is summarized
+  private static final int MAX_LISTED_PORTALS = 20;
+
+  private final PortalValidationService portalValidationService;
+
+  public ValidatePlaceholdersCommand(PortalValidationService portalValidationService) {
+    super("validate", "Check all loaded portals for unknown placeholders", false);
+    this.portalValidationService = portalValidationService;
+  }
+
+  @NullableDecl
+  @Override
+  protected CompletableFuture<Void> execute(@NonNullDecl CommandContext context) {
+    final var sender = context.sender();
+    sender.sendMessage(Message.translation(MSG_STARTED).param(Params.MOD_PREFIX, PREFIX));
+
+    return portalValidationService
+        .scan()
+        .handle(
+            (report, throwable) -> {
+              // The cause is logged by the service
+              if (throwable != null) {
+                sender.sendMessage(
+                    Message.translation(MSG_FAILED).param(Params.MOD_PREFIX, PREFIX));
+                return null;
+              }
+
+              if (report.broken().isEmpty()) {
+                sender.sendMessage(
+                    Message.translation(MSG_ALL_VALID)
+                        .param(Params.MOD_PREFIX, PREFIX)
+                        .param(Params.PORTAL_AMOUNT, report.portals())
+                        .param(Params.DURATION, String.valueOf(report.durationMillis())));
+                return null;
+              }
+
+              sender.sendMessage(
+                  Message.translation(MSG_OUTPUT)
+                      .param(Params.MOD_PREFIX, PREFIX)
+                      .param(Params.BROKEN_AMOUNT, report.broken().size())
+                      .param(Params.PORTAL_AMOUNT, report.portals()));
+
+              final var listed = Math.min(report.broken().size(), MAX_LISTED_PORTALS);
+              for (int i = 0; i < listed; i++) {
+                final var portal = report.broken().get(i);
+                sender.sendMessage(
+                    Message.translation(MSG_ENTRY)
+                        .param(Params.WORLD, portal.world())
+                        .param(Params.X, portal.x())
+                        .param(Params.Y, portal.y())
+                        .param(Params.Z, portal.z())
+                        .param(
+                            Params.PLACEHOLDER_LIST,
+                            portal.missing().stream()
+                                .map(name -> "{" + name + "}")
+                                .collect(Collectors.joining(", "))));
+              }
+
+              if (report.broken().size() > listed) {
+                sender.sendMessage(
+                    Message.translation(MSG_MORE)
+                        .param(Params.BROKEN_AMOUNT, report.broken().size() - listed));
+              }
+              return null;
+            });
+  }
+}
@@ -8,11 +8,15 @@ import com.hypixel.hytale.codec.codecs.array.ArrayCodec;
 import com.hypixel.hytale.component.Component;
 import com.hypixel.hytale.component.ComponentType;
 import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 import studio.hiwire.adminportals.AdminPortalsPlugin;
 
@@ -25,6 +29,8 @@ public class PortalConfigComponent implements Component<ChunkStore> {
 
   public static final Type DEFAULT_TYPE = Type.Command;
   public static final CommandSender DEFAULT_COMMAND_SENDER = CommandSender.Server;
+  public static final ExecutionMode DEFAULT_EXECUTION_MODE = ExecutionMode.Sync;
+  public static final Priority DEFAULT_PRIORITY = Priority.Normal;
   public static final CommandEntry[] DEFAULT_COMMANDS = new CommandEntry[0];
   public static final String DEFAULT_INTERACTION_SOUND_EFFECT_ID =
       "SFX_Portal_Neutral_Teleport_Local";
@@ -38,6 +44,9 @@ public class PortalConfigComponent implements Component<ChunkStore> {
   private String interactionSoundEffectId;
   private Boolean collisionInteraction;
   private Boolean useInteraction;
+  private TeleportDestination teleportDestination;
+  private RateLimit rateLimit;
+  private Cooldown cooldown;
 
   /**
    * Returns a new component with legacy single-command fields migrated to the {@code commands}
@@ -66,12 +75,16 @@ public class PortalConfigComponent implements Component<ChunkStore> {
         migratedCommands,
         interactionSoundEffectId,
         collisionInteraction,
-        useInteraction);
+        useInteraction,
+        teleportDestination,
+        rateLimit,
+        cooldown);
   }
 
   /**
    * Returns a new component with all null fields replaced by their default values. Empty strings
-   * are preserved (e.g., empty interactionSoundEffectId means no sound).
+   * are preserved (e.g., empty interactionSoundEffectId means no sound). The teleport destination,
+   * the rate limit and the cooldown have no default and stay {@code null} if they are not set.
    */
   public PortalConfigComponent normalized() {
     return new PortalConfigComponent(
@@ -83,7 +96,10 @@ public class PortalConfigComponent implements Component<ChunkStore> {
             ? interactionSoundEffectId
             : DEFAULT_INTERACTION_SOUND_EFFECT_ID,
         collisionInteraction != null ? collisionInteraction : DEFAULT_COLLISION_INTERACTION,
-        useInteraction != null ? useInteraction : DEFAULT_USE_INTERACTION);
+        useInteraction != null ? useInteraction : DEFAULT_USE_INTERACTION,
+        teleportDestination,
+        rateLimit,
+        cooldown);
   }
 
   @NullableDecl
@@ -106,7 +122,10 @@ public class PortalConfigComponent implements Component<ChunkStore> {
         clonedCommands,
         this.interactionSoundEffectId,
         this.collisionInteraction,
-        this.useInteraction);
+        this.useInteraction,
+        this.teleportDestination != null ? this.teleportDestination.clone() : null,
+        this.rateLimit != null ? this.rateLimit.clone() : null,
+        this.cooldown != null ? this.cooldown.clone() : null);
   }
 
   public static ComponentType<ChunkStore, PortalConfigComponent> getComponentType() {
@@ -114,7 +133,8 @@ public class PortalConfigComponent implements Component<ChunkStore> {
   }
 
   public enum Type {
-    Command
+    Command,
+    Teleport
   }
 
   @RequiredArgsConstructor
@@ -126,7 +146,34 @@ public class PortalConfigComponent implements Component<ChunkStore> {
     private final String uiDisplayName;
   }
 
-  @AllArgsConstructor
+  /**
+   * How a command entry is executed. {@link #Async} only applies to {@link CommandSender#Server}
+   * entries, player commands always run on the world thread.
+   */
+  @RequiredArgsConstructor
+  @Getter
+  public enum ExecutionMode {
+    Sync("Sync"),
+    Async("Async");
+
+    private final String uiDisplayName;
+  }
+
+  /**
+   * How important a command entry is when the world is lagging. While ticks take longer than the
+   * configured threshold, {@link #Low} entries are dropped and {@link #Critical} entries run even
+   * when the per-tick command budget is used up. {@link #Normal} entries wait for the budget.
+   */
+  @RequiredArgsConstructor
+  @Getter
+  public enum Priority {
+    Critical("Critical"),
+    Normal("Normal"),
+    Low("Low");
+
+    private final String uiDisplayName;
+  }
+
   @NoArgsConstructor
   @Data
   public static class CommandEntry implements Cloneable {
@@ -134,13 +181,60 @@ public class PortalConfigComponent implements Component<ChunkStore> {
 
     private String command;
     private CommandSender commandSender;
+    private ExecutionMode executionMode = DEFAULT_EXECUTION_MODE;
+    private Priority priority = DEFAULT_PRIORITY;
+
+    // Whether the command contains no placeholders, derived from the command whenever it is set
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient boolean literal = true;
+
+    public CommandEntry(String command, CommandSender commandSender) {
+      this(command, commandSender, DEFAULT_EXECUTION_MODE);
+    }
+
+    public CommandEntry(String command, CommandSender commandSender, ExecutionMode executionMode) {
+      this(command, commandSender, executionMode, DEFAULT_PRIORITY);
+    }
+
+    public CommandEntry(
+        String command,
+        CommandSender commandSender,
+        ExecutionMode executionMode,
+        Priority priority) {
+      setCommand(command);
+      this.commandSender = commandSender;
+      this.executionMode = executionMode;
+      this.priority = priority;
+    }
+
+    /** Whether this entry runs off the world thread, see {@link ExecutionMode}. */
+    public boolean isAsync() {
+      return executionMode == ExecutionMode.Async && commandSender == CommandSender.Server;
+    }
+
+    public void setCommand(String command) {
+      this.command = command;
+      this.literal = command == null || command.indexOf('{') < 0;
+    }
+
+    /**
+     * Whether the command contains no placeholders and can be dispatched as is, without compiling
+     * or rendering it. No placeholder registration can change that, so the flag is only updated
+     * when the command is.
+     */
+    public boolean isLiteral() {
+      return literal;
+    }
 
     static {
       CODEC =
           BuilderCodec.builder(CommandEntry.class, CommandEntry::new)
               .append(
                   new KeyedCodec<>("Command", Codec.STRING),
-                  (o, i) -> o.command = i,
+                  CommandEntry::setCommand,
                   o -> o.command)
               .add()
               .append(
@@ -150,13 +244,135 @@ public class PortalConfigComponent implements Component<ChunkStore> {
                   (o, i) -> o.commandSender = i,
                   o -> o.commandSender)
               .add()
+              .append(
+                  new KeyedCodec<>(
+                      "ExecutionMode",
+                      new EnumCodec<>(ExecutionMode.class, EnumCodec.EnumStyle.CAMEL_CASE)),
+                  (o, i) -> o.executionMode = i,
+                  o -> o.executionMode)
+              .add()
+              .append(
+                  new KeyedCodec<>(
+                      "Priority", new EnumCodec<>(Priority.class, EnumCodec.EnumStyle.CAMEL_CASE)),
+                  (o, i) -> o.priority = i,
+                  o -> o.priority)
+              .add()
               .build();
     }
 
     @Override
     @SuppressWarnings({"CloneDoesntCallSuperClone"})
     protected CommandEntry clone() {
-      return new CommandEntry(command, commandSender);
+      return new CommandEntry(command, commandSender, executionMode, priority);
+    }
+  }
+
+  /**
+   * Target of a {@link Type#Teleport} portal. An empty or {@code null} world means the world the
+   * portal is in. Yaw and pitch are in degrees.
+   */
+  @AllArgsConstructor
+  @NoArgsConstructor
+  @Data
+  public static class TeleportDestination implements Cloneable {
+    public static final BuilderCodec<TeleportDestination> CODEC;
+
+    private String world;
+    private double x;
+    private double y;
+    private double z;
+    private float yaw;
+    private float pitch;
+
+    static {
+      CODEC =
+          BuilderCodec.builder(TeleportDestination.class, TeleportDestination::new)
+              .append(new KeyedCodec<>("World", Codec.STRING), (o, i) -> o.world = i, o -> o.world)
+              .add()
+              .append(new KeyedCodec<>("X", Codec.DOUBLE), (o, i) -> o.x = i, o -> o.x)
+              .add()
+              .append(new KeyedCodec<>("Y", Codec.DOUBLE), (o, i) -> o.y = i, o -> o.y)
+              .add()
+              .append(new KeyedCodec<>("Z", Codec.DOUBLE), (o, i) -> o.z = i, o -> o.z)
+              .add()
+              .append(new KeyedCodec<>("Yaw", Codec.FLOAT), (o, i) -> o.yaw = i, o -> o.yaw)
+              .add()
+              .append(new KeyedCodec<>("Pitch", Codec.FLOAT), (o, i) -> o.pitch = i, o -> o.pitch)
+              .add()
+              .build();
+    }
+
+    @Override
+    @SuppressWarnings({"CloneDoesntCallSuperClone"})
+    public TeleportDestination clone() {
+      return new TeleportDestination(world, x, y, z, yaw, pitch);
+    }
+  }
+
+  /**
+   * Limits how often a portal can be activated, by all players combined. Up to {@code burst}
+   * activations are allowed at once, refilling at {@code activationsPerSecond}.
+   */
+  @AllArgsConstructor
+  @NoArgsConstructor
+  @Data
+  public static class RateLimit implements Cloneable {
+    public static final BuilderCodec<RateLimit> CODEC;
+
+    private double activationsPerSecond;
+    private int burst;
+
+    static {
+      CODEC =
+          BuilderCodec.builder(RateLimit.class, RateLimit::new)
+              .append(
+                  new KeyedCodec<>("ActivationsPerSecond", Codec.DOUBLE),
+                  (o, i) -> o.activationsPerSecond = i,
+                  o -> o.activationsPerSecond)
+              .add()
+              .append(new KeyedCodec<>("Burst", Codec.INTEGER), (o, i) -> o.burst = i, o -> o.burst)
+              .add()
+              .build();
+    }
+
+    @Override
+    @SuppressWarnings({"CloneDoesntCallSuperClone"})
+    public RateLimit clone() {
+      return new RateLimit(activationsPerSecond, burst);
+    }
+  }
+
+  /**
+   * Time a player has to wait before using a portal again. Global cooldowns are shared by all
+   * portals of the world with a global cooldown, so using one of them blocks the others as well.
+   */
+  @AllArgsConstructor
+  @NoArgsConstructor
+  @Data
+  public static class Cooldown implements Cloneable {
+    public static final BuilderCodec<Cooldown> CODEC;
+
+    private double seconds;
+    private boolean global;
+
+    static {
+      CODEC =
+          BuilderCodec.builder(Cooldown.class, Cooldown::new)
+              .append(
+                  new KeyedCodec<>("Seconds", Codec.DOUBLE),
+                  (o, i) -> o.seconds = i,
+                  o -> o.seconds)
+              .add()
+              .append(
+                  new KeyedCodec<>("Global", Codec.BOOLEAN), (o, i) -> o.global = i, o -> o.global)
+              .add()
+              .build();
+    }
+
+    @Override
+    @SuppressWarnings({"CloneDoesntCallSuperClone"})
+    public Cooldown clone() {
+      return new Cooldown(seconds, global);
     }
   }
 
@@ -200,6 +416,21 @@ public class PortalConfigComponent implements Component<ChunkStore> {
                 (o, i) -> o.useInteraction = i,
                 o -> o.useInteraction)
             .add()
+            .append(
+                new KeyedCodec<>("TeleportDestination", TeleportDestination.CODEC),
+                (o, i) -> o.teleportDestination = i,
+                o -> o.teleportDestination)
+            .add()
+            .append(
+                new KeyedCodec<>("RateLimit", RateLimit.CODEC),
+                (o, i) -> o.rateLimit = i,
+                o -> o.rateLimit)
+            .add()
+            .append(
+                new KeyedCodec<>("Cooldown", Cooldown.CODEC),
+                (o, i) -> o.cooldown = i,
+                o -> o.cooldown)
+            .add()
             .build();
   }
 }
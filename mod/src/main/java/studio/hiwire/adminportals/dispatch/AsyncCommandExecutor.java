@@ -0,0 +1,156 @@
+package studio.hiwire.adminportals.dispatch;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.universe.world.World;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * Runs {@link QueuedCommand#async() async} portal commands on virtual threads, so slow commands
+ * (e.g. ones calling into plugins that query a database) do not stall the world tick.
+ *
+ * <p>Commands of the same player run strictly in the order they were submitted. Once a player has
+ * async work pending, their following sync commands are chained behind it as well and executed on
+ * the world thread when their turn comes. Commands of different players run concurrently.
+ *
+ * <p>The world thread only starts sync commands and never waits for them. A command that does not
+ * finish within its timeout is given up on, async ones are interrupted, and the player's next
+ * command starts. Outcomes are logged from the world thread of the activation.
+ */
+public class AsyncCommandExecutor {
+
+  public static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final Function<QueuedCommand, CompletableFuture<Void>> dispatcher;
+
+  // Last pending command of each player, new commands are chained behind it
+  private final ConcurrentHashMap<UUID, CompletableFuture<Void>> pending =
+      new ConcurrentHashMap<>();
+
+  public AsyncCommandExecutor() {
+    this(QueuedCommand::dispatch);
+  }
+
+  AsyncCommandExecutor(@NonNullDecl Function<QueuedCommand, CompletableFuture<Void>> dispatcher) {
+    this.dispatcher = dispatcher;
+  }
+
+  /** Whether the player has submitted commands that did not complete yet. */
+  public boolean hasPending(@NonNullDecl UUID playerUuid) {
+    return pending.containsKey(playerUuid);
+  }
+
+  /**
+   * Schedules a command behind all pending commands of the same player.
+   *
+   * @param world the world the portal was activated in, used for sync commands and reporting
+   * @param command the command to execute
+   * @param timeoutMillis maximum run time of the command
+   * @return a future that completes on the world thread once the command finished, failed or timed
+   *     out
+   */
+  public CompletableFuture<Void> submit(
+      @NonNullDecl World world, @NonNullDecl QueuedCommand command, long timeoutMillis) {
+    final var playerUuid = command.playerRef().getUuid();
+    final CompletableFuture<Void> step =
+        pending.compute(
+            playerUuid,
+            (uuid, previous) -> {
+              final CompletableFuture<Void> predecessor =
+                  previous != null ? previous : CompletableFuture.completedFuture(null);
+              // A failed or timed out command must not block the player's following commands
+              return predecessor
+                  .handle((result, throwable) -> null)
+                  .thenCompose(ignored -> run(world, command, timeoutMillis));
+            });
+    step.whenComplete((result, throwable) -> pending.remove(playerUuid, step));
+
+    return step.handleAsync(
+        (result, throwable) -> {
+          report(command, throwable, timeoutMillis);
+          return null;
+        },
+        world);
+  }
+
+  private CompletableFuture<Void> run(World world, QueuedCommand command, long timeoutMillis) {
+    final var result = new CompletableFuture<Void>();
+    result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+
+    if (!command.async()) {
+      // Only start the command on the world thread, waiting for it there would stall the tick
+      world.execute(
+          () ->
+              dispatch(command)
+                  .whenComplete(
+                      (ignored, throwable) -> {
+                        if (throwable == null) {
+                          result.complete(null);
+                        } else {
+                          result.completeExceptionally(throwable);
+                        }
+                      }));
+      return result;
+    }
+
+    final var task =
+        executor.submit(
+            () -> {
+              try {
+                // Unlike join(), get() gives up when the task is cancelled on timeout
+                dispatch(command).get(timeoutMillis, TimeUnit.MILLISECONDS);
+                result.complete(null);
+              } catch (ExecutionException e) {
+                result.completeExceptionally(e.getCause());
+              } catch (InterruptedException | TimeoutException e) {
+                result.completeExceptionally(e);
+              }
+            });
+    result.whenComplete(
+        (ignored, throwable) -> {
+          if (throwable instanceof TimeoutException) {
+            task.cancel(true);
+          }
+        });
+    return result;
+  }
+
+  private CompletableFuture<Void> dispatch(QueuedCommand command) {
+    try {
+      final var future = dispatcher.apply(command);
+      return future != null ? future : CompletableFuture.completedFuture(null);
+    } catch (Throwable throwable) {
+      return CompletableFuture.failedFuture(throwable);
+    }
+  }
+
+  private static void report(QueuedCommand command, Throwable throwable, long timeoutMillis) {
+    if (throwable == null) {
+      LOGGER.at(Level.FINE).log("Portal command '%s' completed", command.command());
+      return;
+    }
+
+    final var cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+    if (cause instanceof TimeoutException) {
+      LOGGER.at(Level.WARNING).log(
+          "Portal command '%s' did not complete within %d ms", command.command(), timeoutMillis);
+    } else {
+      LOGGER.at(Level.WARNING).withCause(cause).log(
+          "Portal command '%s' failed", command.command());
+    }
+  }
+
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,302 @@
+package studio.hiwire.adminportals.dispatch;
+
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.ArrayDeque;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+import studio.hiwire.adminportals.AdminPortalsPlugin;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+
+/**
+ * Per-world queue of portal commands, drained in one batch per tick by {@link
+ * CommandDispatchSystem}. Only accessed from the world thread.
+ *
+ * <p>Portal activations only resolve their commands and enqueue them, so a crowd going through a
+ * portal at once does not run all of its commands inside the interaction system. Each portal has
+ * its own FIFO, which keeps the order of a portal's entries and of consecutive activations, and
+ * portals take turns in round-robin order. A busy portal therefore cannot starve the others. A
+ * portal whose next command belongs to a player with an earlier command queued at another portal
+ * skips its turn, so each player's commands still run in activation order. The globally oldest
+ * command is always at the front of its portal and never waits, so the portals cannot block each
+ * other.
+ *
+ * <p>Each drain is limited by a command count and by the time measured around the commands.
+ * Commands over the budget stay queued for the next tick, and the round-robin position carries
+ * over. Time spent over the budget, e.g. by a single slow command, is taken from the next tick's
+ * budget, so portals keep to their slice of the tick on average.
+ *
+ * <p>While the world is lagging, commands are handled by their {@link
+ * PortalConfigComponent.Priority}: low priority commands are dropped and counted, critical ones
+ * are not held back by the budget.
+ */
+public class CommandDispatchQueue implements Resource<EntityStore> {
+
+  public static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+  private static final long NO_TICK = Long.MIN_VALUE;
+
+  private final LongSupplier clock;
+  // Packed portal position -> commands of that portal, in enqueue order
+  private final Long2ObjectOpenHashMap<ArrayDeque<QueuedCommand>> portals =
+      new Long2ObjectOpenHashMap<>();
+  // Portals with queued commands, in round-robin order
+  private final LongArrayFIFOQueue rotation = new LongArrayFIFOQueue();
+  // Player -> portals of the player's queued commands, in enqueue order
+  private final Object2ObjectOpenHashMap<UUID, LongArrayFIFOQueue> playerPortals =
+      new Object2ObjectOpenHashMap<>();
+  // Emptied queues of the two maps, reused so that enqueuing only allocates the command itself
+  private final ObjectArrayList<ArrayDeque<QueuedCommand>> spareCommands = new ObjectArrayList<>();
+  private final ObjectArrayList<LongArrayFIFOQueue> spareOrders = new ObjectArrayList<>();
+  private int size;
+  // Time spent over the budget in previous drains, at most one budget
+  private long overrunNanos;
+  private long droppedCommands;
+  // Whether the previous drain shed low priority commands, and the dropped count when it started
+  private boolean shedding;
+  private long droppedAtSheddingStart;
+  // Time of the previous tick
+  private long lastTickNanos = NO_TICK;
+
+  public CommandDispatchQueue() {
+    this(System::nanoTime);
+  }
+
+  CommandDispatchQueue(@NonNullDecl LongSupplier clock) {
+    this.clock = clock;
+  }
+
+  public void enqueue(@NonNullDecl QueuedCommand command) {
+    var commands = portals.get(command.portalKey());
+    if (commands == null) {
+      commands = spareCommands.isEmpty() ? new ArrayDeque<>() : spareCommands.pop();
+      portals.put(command.portalKey(), commands);
+      rotation.enqueue(command.portalKey());
+    }
+    commands.addLast(command);
+
+    final var player = command.playerRef().getUuid();
+    var order = playerPortals.get(player);
+    if (order == null) {
+      order = spareOrders.isEmpty() ? new LongArrayFIFOQueue() : spareOrders.pop();
+      playerPortals.put(player, order);
+    }
+    order.enqueue(command.portalKey());
+    size++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Marks the start of a world tick.
+   *
+   * @return the time since the previous tick was marked, i.e. how long that tick actually took, or
+   *     {@code 0} for the first tick
+   */
+  long markTick() {
+    final var now = clock.getAsLong();
+    final var previous = lastTickNanos;
+    lastTickNanos = now;
+    return previous != NO_TICK ? now - previous : 0;
+  }
+
+  /**
+   * Executes queued commands, one per portal in turn.
+   *
+   * <p>When {@code shedLowPriority} is set, {@link PortalConfigComponent.Priority#Low} commands are
+   * dropped as they are reached. {@link PortalConfigComponent.Priority#Critical} commands at the
+   * front of a portal's queue run even after the limit or the budget is used up.
+   *
+   * @param limit maximum number of commands to execute, or a value {@code <= 0} for no limit
+   * @param budgetNanos time the commands may take, or a value {@code <= 0} for no limit. The
+   *     command that exceeds the budget still completes, and the excess is taken from the next
+   *     drain.
+   * @param shedLowPriority whether the world is lagging and low priority commands are dropped
+   * @param dispatcher executes a single command
+   * @return the number of commands executed
+   */
+  int drain(
+      int limit,
+      long budgetNanos,
+      boolean shedLowPriority,
+      @NonNullDecl Consumer<QueuedCommand> dispatcher) {
+    updateShedding(shedLowPriority);
+
+    final long budget;
+    if (budgetNanos <= 0) {
+      overrunNanos = 0;
+      budget = Long.MAX_VALUE;
+    } else if (overrunNanos >= budgetNanos) {
+      // The previous drains used this tick's budget already
+      overrunNanos -= budgetNanos;
+      budget = 0;
+    } else {
+      budget = budgetNanos - overrunNanos;
+      overrunNanos = 0;
+    }
+
+    // Commands enqueued while draining wait for the next tick
+    final var available = size;
+    final var count = limit > 0 ? Math.min(limit, available) : available;
+    long spent = 0;
+    int executed = 0;
+    int polled = 0;
+    while (polled < available && executed < count && spent < budget) {
+      final var command = pollNext();
+      if (command == null) {
+        break;
+      }
+      polled++;
+      if (shedLowPriority && command.priority() == PortalConfigComponent.Priority.Low) {
+        droppedCommands++;
+        continue;
+      }
+      spent += dispatch(command, dispatcher);
+      executed++;
+    }
+
+    // Critical commands do not wait for the next tick, each portal runs the ones at its front
+    for (int turns = rotation.size(); turns > 0 && polled < available; turns--) {
+      final var portalKey = rotation.dequeueLong();
+      final var commands = portals.get(portalKey);
+      while (polled < available && !commands.isEmpty() && isNextOfPlayer(commands.peekFirst())) {
+        final var priority = commands.peekFirst().priority();
+        final var drop = shedLowPriority && priority == PortalConfigComponent.Priority.Low;
+        if (!drop && priority != PortalConfigComponent.Priority.Critical) {
+          break;
+        }
+        final var command = pollFirst(commands);
+        polled++;
+        if (drop) {
+          droppedCommands++;
+        } else {
+          spent += dispatch(command, dispatcher);
+          executed++;
+        }
+      }
+      if (commands.isEmpty()) {
+        spareCommands.push(portals.remove(portalKey));
+      } else {
+        rotation.enqueue(portalKey);
+      }
+    }
+
+    if (budgetNanos > 0) {
+      overrunNanos = Math.min(overrunNanos + Math.max(spent - budget, 0), budgetNanos);
+    }
+    return executed;
+  }
+
+  /** Returns the number of low priority commands dropped while the world was lagging. */
+  public long getDroppedCommands() {
+    return droppedCommands;
+  }
+
+  // Logs the dropped commands once per lag episode instead of once per command
+  private void updateShedding(boolean shedLowPriority) {
+    if (shedLowPriority == shedding) {
+      return;
+    }
+    shedding = shedLowPriority;
+    if (shedLowPriority) {
+      droppedAtSheddingStart = droppedCommands;
+      return;
+    }
+    final var dropped = droppedCommands - droppedAtSheddingStart;
+    if (dropped > 0) {
+      LOGGER.at(Level.INFO).log(
+          "Dropped %d low priority portal commands while the world was lagging", dropped);
+    }
+  }
+
+  // Returns the time the command took
+  private long dispatch(QueuedCommand command, Consumer<QueuedCommand> dispatcher) {
+    final var start = clock.getAsLong();
+    try {
+      dispatcher.accept(command);
+    } catch (Exception e) {
+      LOGGER.at(Level.WARNING).withCause(e).log(
+          "Failed to execute portal command '%s'", command.command());
+    }
+    return clock.getAsLong() - start;
+  }
+
+  // Returns the front command of the next portal whose player has no earlier queued command
+  @NullableDecl
+  private QueuedCommand pollNext() {
+    for (int turns = rotation.size(); turns > 0; turns--) {
+      final var portalKey = rotation.dequeueLong();
+      final var commands = portals.get(portalKey);
+      if (!isNextOfPlayer(commands.peekFirst())) {
+        rotation.enqueue(portalKey);
+        continue;
+      }
+      final var command = pollFirst(commands);
+      if (commands.isEmpty()) {
+        spareCommands.push(portals.remove(portalKey));
+      } else {
+        rotation.enqueue(portalKey);
+      }
+      return command;
+    }
+    return null;
+  }
+
+  // Whether the front command of a portal is the oldest queued command of its player
+  private boolean isNextOfPlayer(QueuedCommand command) {
+    return playerPortals.get(command.playerRef().getUuid()).firstLong() == command.portalKey();
+  }
+
+  private QueuedCommand pollFirst(ArrayDeque<QueuedCommand> commands) {
+    final var command = commands.pollFirst();
+    final var player = command.playerRef().getUuid();
+    final var order = playerPortals.get(player);
+    order.dequeueLong();
+    if (order.isEmpty()) {
+      spareOrders.push(playerPortals.remove(player));
+    }
+    size--;
+    return command;
+  }
+
+  @NullableDecl
+  @Override
+  @SuppressWarnings("CloneDoesntCallSuperClone")
+  public Resource<EntityStore> clone() {
+    final var copy = new CommandDispatchQueue(clock);
+    for (int i = 0; i < rotation.size(); i++) {
+      final var portalKey = rotation.dequeueLong();
+      rotation.enqueue(portalKey);
+      copy.rotation.enqueue(portalKey);
+      copy.portals.put(portalKey, new ArrayDeque<>(portals.get(portalKey)));
+    }
+    for (final var entry : playerPortals.entrySet()) {
+      final var order = entry.getValue();
+      final var orderCopy = new LongArrayFIFOQueue();
+      for (int i = 0; i < order.size(); i++) {
+        final var portalKey = order.dequeueLong();
+        order.enqueue(portalKey);
+        orderCopy.enqueue(portalKey);
+      }
+      copy.playerPortals.put(entry.getKey(), orderCopy);
+    }
+    copy.size = size;
+    return copy;
+  }
+
+  public static ResourceType<EntityStore, CommandDispatchQueue> getResourceType() {
+    return AdminPortalsPlugin.get().getCommandDispatchQueueResourceType();
+  }
+}
@@ -0,0 +1,66 @@
+package studio.hiwire.adminportals.dispatch;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.dependency.Dependency;
+import com.hypixel.hytale.component.dependency.Order;
+import com.hypixel.hytale.component.dependency.SystemDependency;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.modules.interaction.system.InteractionSystems;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import studio.hiwire.adminportals.AdminPortalsPlugin;
+
+/**
+ * Executes the commands queued in {@link CommandDispatchQueue} once per world tick, after the
+ * interactions of the tick have run. Async commands, and sync commands of players that still have
+ * async commands pending, are handed to the {@link AsyncCommandExecutor} to keep each player's
+ * commands in order.
+ */
+public class CommandDispatchSystem extends TickingSystem<EntityStore> {
+
+  // Use and collision activations run in the interaction tick and only enqueue their commands.
+  // Draining after it dispatches them in the tick they were activated in, not one tick later.
+  private static final Set<Dependency<EntityStore>> DEPENDENCIES =
+      Set.of(
+          new SystemDependency<>(
+              Order.AFTER, InteractionSystems.TickInteractionManagerSystem.class));
+
+  @NonNullDecl
+  @Override
+  public Set<Dependency<EntityStore>> getDependencies() {
+    return DEPENDENCIES;
+  }
+
+  @Override
+  public void tick(float dt, int systemIndex, @NonNullDecl Store<EntityStore> store) {
+    final var queue = store.getResource(CommandDispatchQueue.getResourceType());
+    // Marked on every tick, so the duration is measured even while nothing is queued. The
+    // scheduled dt does not grow when the world falls behind.
+    final var tickNanos = queue.markTick();
+    if (queue.size() == 0) {
+      return;
+    }
+
+    final var plugin = AdminPortalsPlugin.get();
+    final var config = plugin.getPluginConfig();
+    final var asyncExecutor = plugin.getAsyncCommandExecutor();
+    final var world = store.getExternalData().getWorld();
+    final var shedLowPriority =
+        config.getLoadSheddingTickMillis() > 0
+            && tickNanos > TimeUnit.MILLISECONDS.toNanos(config.getLoadSheddingTickMillis());
+
+    queue.drain(
+        config.getCommandDispatchLimitPerTick(),
+        TimeUnit.MICROSECONDS.toNanos(config.getCommandDispatchBudgetMicrosPerTick()),
+        shedLowPriority,
+        command -> {
+          if (command.async() || asyncExecutor.hasPending(command.playerRef().getUuid())) {
+            asyncExecutor.submit(world, command, config.getAsyncCommandTimeoutMillis());
+          } else {
+            command.dispatch();
+          }
+        });
+  }
+}
@@ -0,0 +1,35 @@
+package studio.hiwire.adminportals.dispatch;
+
+import com.hypixel.hytale.server.core.command.system.CommandManager;
+import com.hypixel.hytale.server.core.console.ConsoleSender;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import java.util.concurrent.CompletableFuture;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+/**
+ * A command with all placeholders resolved, waiting in a {@link CommandDispatchQueue}.
+ *
+ * @param playerRef the player that activated the portal
+ * @param sender who the command is executed as
+ * @param command the command line to execute
+ * @param async whether the command runs on the {@link AsyncCommandExecutor}
+ * @param portalKey the position of the activated portal, packed with {@link BlockPositionKey}
+ * @param priority how the command is treated while the world is lagging
+ */
+public record QueuedCommand(
+    @NonNullDecl PlayerRef playerRef,
+    @NonNullDecl PortalConfigComponent.CommandSender sender,
+    @NonNullDecl String command,
+    boolean async,
+    long portalKey,
+    @NonNullDecl PortalConfigComponent.Priority priority) {
+
+  CompletableFuture<Void> dispatch() {
+    return switch (sender) {
+      case Server -> CommandManager.get().handleCommand(ConsoleSender.INSTANCE, command);
+      case Player -> CommandManager.get().handleCommand(playerRef, command);
+    };
+  }
+}
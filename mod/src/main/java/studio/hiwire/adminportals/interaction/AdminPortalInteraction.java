@@ -7,28 +7,34 @@ import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.shape.Box;
 import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
 import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.protocol.InteractionType;
 import com.hypixel.hytale.protocol.SoundCategory;
 import com.hypixel.hytale.server.core.Message;
-import com.hypixel.hytale.server.core.asset.type.soundevent.config.SoundEvent;
-import com.hypixel.hytale.server.core.command.system.CommandManager;
-import com.hypixel.hytale.server.core.console.ConsoleSender;
+import com.hypixel.hytale.server.core.asset.type.blockhitbox.BlockBoundingBoxes;
 import com.hypixel.hytale.server.core.entity.InteractionChain;
 import com.hypixel.hytale.server.core.entity.InteractionContext;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.modules.entity.teleport.Teleport;
 import com.hypixel.hytale.server.core.modules.interaction.interaction.CooldownHandler;
 import com.hypixel.hytale.server.core.modules.interaction.interaction.config.client.SimpleBlockInteraction;
 import com.hypixel.hytale.server.core.permissions.PermissionsModule;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
 import com.hypixel.hytale.server.core.universe.world.SoundUtil;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
 import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
@@ -36,8 +42,19 @@ import studio.hiwire.adminportals.AdminPortalsPlugin;
 import studio.hiwire.adminportals.Permissions;
 import studio.hiwire.adminportals.TranslationKeys.Params;
 import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.dispatch.CommandDispatchQueue;
+import studio.hiwire.adminportals.dispatch.QueuedCommand;
 import studio.hiwire.adminportals.page.PortalConfigurationPage;
 import studio.hiwire.adminportals.placeholder.PlaceholderContext;
+import studio.hiwire.adminportals.placeholder.PlaceholderMemo;
+import studio.hiwire.adminportals.portal.PortalConfigCache;
+import studio.hiwire.adminportals.portal.PortalCooldowns;
+import studio.hiwire.adminportals.portal.PortalIndex;
+import studio.hiwire.adminportals.portal.PortalOccupancy;
+import studio.hiwire.adminportals.portal.PortalRateLimiter;
+import studio.hiwire.adminportals.portal.PortalSoundEvents;
+import studio.hiwire.adminportals.portal.ResolvedPortalConfig;
+import studio.hiwire.adminportals.util.BlockPositionKey;
 
 public class AdminPortalInteraction extends SimpleBlockInteraction {
 
@@ -52,6 +69,10 @@ public class AdminPortalInteraction extends SimpleBlockInteraction {
       CHAT_MESSAGES + ".Configuration.Portal.View.NoPermission";
   private static final String MSG_BLOCK_ENTITY_MISSING =
       CHAT_MESSAGES + ".Interaction.Portal.BlockEntityMissing";
+  private static final String MSG_PORTAL_BUSY = CHAT_MESSAGES + ".Interaction.Portal.Busy";
+  private static final String MSG_PORTAL_COOLDOWN = CHAT_MESSAGES + ".Interaction.Portal.Cooldown";
+  private static final String MSG_DESTINATION_WORLD_MISSING =
+      CHAT_MESSAGES + ".Interaction.Portal.DestinationWorldMissing";
 
   @Override
   protected void interactWithBlock(
@@ -80,28 +101,37 @@ public class AdminPortalInteraction extends SimpleBlockInteraction {
       return;
     }
 
-    // Get the chunk containing this block
-    WorldChunk chunk = world.getChunkIfInMemory(ChunkUtil.indexChunkFromBlock(pos.x, pos.z));
-    if (chunk == null) {
-      return;
-    }
+    final var positionKey = BlockPositionKey.pack(pos.x, pos.y, pos.z);
+
+    // Loaded portals are indexed by position, so steady-state activations skip the chunk and
+    // block entity resolution
+    Ref<ChunkStore> blockEntityRef =
+        world
+            .getChunkStore()
+            .getStore()
+            .getResource(PortalIndex.getResourceType())
+            .get(positionKey);
+    if (blockEntityRef == null || !blockEntityRef.isValid()) {
+      // Get the chunk containing this block
+      WorldChunk chunk = world.getChunkIfInMemory(ChunkUtil.indexChunkFromBlock(pos.x, pos.z));
+      if (chunk == null) {
+        return;
+      }
 
-    // Get the block entity reference for this specific block
-    Ref<ChunkStore> blockEntityRef = chunk.getBlockComponentEntity(pos.x, pos.y, pos.z);
-    if (blockEntityRef == null) {
-      LOGGER.at(Level.WARNING).log(
-          "Block entity missing for portal at position %s - this is a bug, please report it with"
-              + " the server error if it is nearby",
-          pos);
-      playerRef.sendMessage(
-          Message.translation(MSG_BLOCK_ENTITY_MISSING).param(Params.MOD_PREFIX, PREFIX));
-      return;
+      // Get the block entity reference for this specific block
+      blockEntityRef = chunk.getBlockComponentEntity(pos.x, pos.y, pos.z);
+      if (blockEntityRef == null) {
+        LOGGER.at(Level.WARNING).log(
+            "Block entity missing for portal at position %s - this is a bug, please report it with"
+                + " the server error if it is nearby",
+            pos);
+        playerRef.sendMessage(
+            Message.translation(MSG_BLOCK_ENTITY_MISSING).param(Params.MOD_PREFIX, PREFIX));
+        return;
+      }
     }
 
-    // Get the config from the block entity (stored in chunk's store)
-    final var chunkStore = chunk.getReference().getStore();
-    final var portalConfig =
-        chunkStore.getComponent(blockEntityRef, PortalConfigComponent.getComponentType());
+    final var chunkStore = blockEntityRef.getStore();
 
     // Open configuration page on interact if the player is in configuration mode
     if (interactionType == InteractionType.Use && playerInConfigurationMode) {
@@ -115,6 +145,9 @@ public class AdminPortalInteraction extends SimpleBlockInteraction {
         return;
       }
 
+      // Get the config from the block entity (stored in chunk's store)
+      final var portalConfig =
+          chunkStore.getComponent(blockEntityRef, PortalConfigComponent.getComponentType());
       final var page = new PortalConfigurationPage(playerRef, blockEntityRef, portalConfig);
       final var player = commandBuffer.getComponent(actorRef, Player.getComponentType());
       if (player == null) {
@@ -126,29 +159,79 @@ public class AdminPortalInteraction extends SimpleBlockInteraction {
       return;
     }
 
-    if (portalConfig == null) {
+    // Migrated and normalized config, cached per block entity
+    final var config =
+        chunkStore
+            .getResource(PortalConfigCache.getResourceType())
+            .get(blockEntityRef, chunkStore, AdminPortalsPlugin.get().getPlaceholderManager());
+    if (config == null) {
       playerRef.sendMessage(
           Message.translation(MSG_PORTAL_NOT_CONFIGURED).param(Params.MOD_PREFIX, PREFIX));
       return;
     }
 
-    // Migrate legacy fields and normalize to ensure all fields have valid values
-    final var config = portalConfig.migrated().normalized();
+    if (interactionType == InteractionType.Collision && !config.isCollisionInteraction()) {
+      return;
+    }
 
-    if (interactionType == InteractionType.Collision && !config.getCollisionInteraction()) {
+    if (interactionType == InteractionType.Use && !config.isUseInteraction()) {
       return;
     }
 
-    if (interactionType == InteractionType.Use && !config.getUseInteraction()) {
+    // Collisions fire once on enter, and a Use in the same tick as a Collision only runs once
+    final var occupancy = actorRef.getStore().getResource(PortalOccupancy.getResourceType());
+    if (!occupancy.tryActivate(
+        actorRef, positionKey, interactionType == InteractionType.Collision)) {
       return;
     }
+    final var hitbox = getHitbox(world, pos);
+    if (hitbox != null) {
+      occupancy.setHitbox(actorRef, positionKey, hitbox);
+    }
+
+    // Players on cooldown have to leave and enter the portal again once it ended
+    final var cooldown = config.getCooldown();
+    final var cooldowns =
+        cooldown != null
+            ? actorRef.getStore().getResource(PortalCooldowns.getResourceType())
+            : null;
+    if (cooldowns != null) {
+      final var remaining = cooldowns.remainingNanos(playerRef.getUuid(), positionKey, cooldown);
+      if (remaining > 0) {
+        final var seconds = Math.ceilDiv(remaining, TimeUnit.SECONDS.toNanos(1));
+        playerRef.sendMessage(
+            Message.translation(MSG_PORTAL_COOLDOWN)
+                .param(Params.MOD_PREFIX, PREFIX)
+                .param(Params.SECONDS, String.valueOf(seconds)));
+        return;
+      }
+    }
+
+    // Crowded portals are capped, rejected players retry while they stand in the portal
+    final var rateLimit = config.getRateLimit();
+    if (rateLimit != null) {
+      final var rateLimiter = actorRef.getStore().getResource(PortalRateLimiter.getResourceType());
+      if (!rateLimiter.tryAcquire(positionKey, rateLimit)) {
+        occupancy.cancelActivation(actorRef, positionKey);
+        if (rateLimiter.shouldNotifyBusy(actorRef)) {
+          playerRef.sendMessage(
+              Message.translation(MSG_PORTAL_BUSY).param(Params.MOD_PREFIX, PREFIX));
+        }
+        return;
+      }
+    }
+
+    if (cooldowns != null) {
+      cooldowns.start(playerRef.getUuid(), positionKey, cooldown);
+    }
 
     LOGGER.at(Level.FINE).log(
-        "Portal config found: type=%s, commands=%s",
-        config.getType(), Arrays.toString(config.getCommands()));
+        "Portal config found: type=%s, commands=%s", config.getType(), config.getCommands());
 
-    PlaceholderContext placeholderContext =
-        new PlaceholderContext(
+    switch (config.getType()) {
+      case Command -> {
+        handleCommandAction(
+            config,
             world,
             commandBuffer,
             interactionType,
@@ -157,13 +240,14 @@ public class AdminPortalInteraction extends SimpleBlockInteraction {
             pos,
             cooldownHandler,
             playerRef,
-            config);
-
-    if (config.getType() == PortalConfigComponent.Type.Command) {
-      handleCommandAction(config, playerRef, placeholderContext);
-      playTeleportSound(actorRef, commandBuffer, config.getInteractionSoundEffectId());
-    } else {
-      LOGGER.at(Level.WARNING).log("Unsupported portal type: %s", config.getType());
+            actorRef);
+        playTeleportSound(actorRef, commandBuffer, config.getInteractionSoundEventIndex());
+      }
+      case Teleport -> {
+        if (handleTeleportAction(config, world, actorRef, playerRef, commandBuffer)) {
+          playTeleportSound(actorRef, commandBuffer, config.getInteractionSoundEventIndex());
+        }
+      }
     }
   }
 
@@ -176,28 +260,27 @@ public class AdminPortalInteraction extends SimpleBlockInteraction {
     // Check root-level cooldown if configured
     // For Use interactions, the root-level cooldown is not automatically checked
     // (unlike Collision which goes through executeChain0), so we handle it manually.
-    final var rootInteraction = chain.getRootInteraction();
-    final var cooldownConfig = rootInteraction.getCooldown();
-
-    if (cooldownConfig != null) {
-      String cooldownId =
-          cooldownConfig.cooldownId != null ? cooldownConfig.cooldownId : rootInteraction.getId();
-      float cooldownTime = cooldownConfig.cooldown;
-      float[] chargeTimes =
-          cooldownConfig.chargeTimes != null
-              ? cooldownConfig.chargeTimes
-              : new float[] {cooldownTime};
-      boolean interruptRecharge = cooldownConfig.interruptRecharge;
-
-      final var forceCooldownCreation = true;
-      var cooldown =
-          cooldownHandler.getCooldown(
-              cooldownId, cooldownTime, chargeTimes, forceCooldownCreation, interruptRecharge);
-      // cooldown cannot be null
-      return cooldown.hasCooldown(true);
-    }
-
-    return false;
+    final var cooldown =
+        AdminPortalsPlugin.get().getCooldownDescriptorCache().get(chain.getRootInteraction());
+    return cooldown != null && cooldown.hasCooldown(cooldownHandler);
+  }
+
+  // The rotated hitbox of the portal block, relative to its position
+  @NullableDecl
+  private static Box getHitbox(@NonNullDecl World world, @NonNullDecl Vector3i pos) {
+    final var chunk = world.getChunkIfInMemory(ChunkUtil.indexChunkFromBlock(pos.x, pos.z));
+    if (chunk == null) {
+      return null;
+    }
+    final var blockType = chunk.getBlockType(pos.x, pos.y, pos.z);
+    if (blockType == null) {
+      return null;
+    }
+    final var hitboxes = BlockBoundingBoxes.getAssetMap().getAsset(blockType.getHitboxTypeIndex());
+    if (hitboxes == null) {
+      return null;
+    }
+    return hitboxes.get(chunk.getRotationIndex(pos.x, pos.y, pos.z)).getBoundingBox();
   }
 
   @Override
@@ -208,29 +291,165 @@ public class AdminPortalInteraction extends SimpleBlockInteraction {
       @NonNullDecl World world,
       @NonNullDecl Vector3i vector3i) {}
 
+  /**
+   * Resolves the placeholders of the portal's commands and enqueues them. An activation allocates
+   * one {@link QueuedCommand} per command, portals with placeholders also allocate one {@link
+   * PlaceholderContext} and the rendered commands. Neither is reused: async placeholder lookups may
+   * still hold the context after the activation, and async commands hold their queue entry until
+   * they complete.
+   */
   private void handleCommandAction(
-      PortalConfigComponent config, PlayerRef playerRef, PlaceholderContext context) {
-    for (PortalConfigComponent.CommandEntry entry : config.getCommands()) {
-      if (entry.getCommand() == null || entry.getCommand().isBlank()) {
-        continue;
+      ResolvedPortalConfig config,
+      World world,
+      CommandBuffer<EntityStore> commandBuffer,
+      InteractionType interactionType,
+      InteractionContext interactionContext,
+      ItemStack itemStack,
+      Vector3i pos,
+      CooldownHandler cooldownHandler,
+      PlayerRef playerRef,
+      Ref<EntityStore> actorRef) {
+    // Placeholders are resolved now, while the activation context is valid; the commands
+    // themselves run when the world's dispatch queue is drained
+    final var dispatchQueue =
+        actorRef.getStore().getResource(CommandDispatchQueue.getResourceType());
+    final var commands = config.getCommands();
+    // Commands are queued per portal, so crowded portals take turns with the others
+    final var portalKey = BlockPositionKey.pack(pos.x, pos.y, pos.z);
+    // Only built once a command actually contains placeholders
+    PlaceholderContext context = null;
+    // Provider results are shared by all commands of this activation
+    PlaceholderMemo memo = null;
+
+    try {
+      for (int i = 0; i < commands.size(); i++) {
+        final var command = commands.get(i);
+        if (command.literal()) {
+          continue;
+        }
+
+        if (context == null) {
+          context =
+              new PlaceholderContext(
+                  world,
+                  commandBuffer,
+                  interactionType,
+                  interactionContext,
+                  itemStack,
+                  pos,
+                  cooldownHandler,
+                  playerRef,
+                  config);
+          memo = PlaceholderMemo.acquire();
+        }
+
+        if (command.template().isAsync()) {
+          // Hand the whole activation over to the async path, keeping the command order
+          handleAsyncCommands(world, dispatchQueue, commands, context, memo, playerRef, portalKey);
+          return;
+        }
+      }
+
+      for (int i = 0; i < commands.size(); i++) {
+        final var command = commands.get(i);
+        // Commands without placeholders bypass the placeholder engine entirely
+        dispatchQueue.enqueue(
+            new QueuedCommand(
+                playerRef,
+                command.sender(),
+                command.render(context, memo),
+                command.async(),
+                portalKey,
+                command.priority()));
+      }
+    } finally {
+      if (memo != null) {
+        memo.close();
       }
+    }
+  }
+
+  /**
+   * Starts the lookups of all async placeholders of an activation and enqueues its commands, in
+   * order, once every lookup completed or fell back after its deadline.
+   */
+  private void handleAsyncCommands(
+      World world,
+      CommandDispatchQueue dispatchQueue,
+      List<ResolvedPortalConfig.Command> commands,
+      PlaceholderContext context,
+      PlaceholderMemo memo,
+      PlayerRef playerRef,
+      long portalKey) {
+    final var rendered = new ArrayList<CompletableFuture<String>>(commands.size());
+    for (final var command : commands) {
+      rendered.add(command.renderAsync(context, memo));
+    }
+
+    CompletableFuture.allOf(rendered.toArray(CompletableFuture[]::new))
+        .whenCompleteAsync(
+            (ignored, throwable) -> {
+              for (int i = 0; i < commands.size(); i++) {
+                final var command = commands.get(i);
+                dispatchQueue.enqueue(
+                    new QueuedCommand(
+                        playerRef,
+                        command.sender(),
+                        rendered.get(i).join(),
+                        command.async(),
+                        portalKey,
+                        command.priority()));
+              }
+            },
+            world);
+  }
 
-      String processedCommand =
-          AdminPortalsPlugin.get().getPlaceholderManager().process(entry.getCommand(), context);
+  private boolean handleTeleportAction(
+      ResolvedPortalConfig config,
+      World world,
+      Ref<EntityStore> actorRef,
+      PlayerRef playerRef,
+      CommandBuffer<EntityStore> commandBuffer) {
+    final var destination = config.getTeleportDestination();
+    if (destination == null) {
+      playerRef.sendMessage(
+          Message.translation(MSG_PORTAL_NOT_CONFIGURED).param(Params.MOD_PREFIX, PREFIX));
+      return false;
+    }
 
-      switch (entry.getCommandSender()) {
-        case Server -> CommandManager.get().handleCommand(ConsoleSender.INSTANCE, processedCommand);
-        case Player -> CommandManager.get().handleCommand(playerRef, processedCommand);
+    final var position = new Vector3d(destination.getX(), destination.getY(), destination.getZ());
+    final var rotation =
+        new Vector3f(
+            (float) Math.toRadians(destination.getPitch()),
+            (float) Math.toRadians(destination.getYaw()),
+            0.0f);
+
+    final Teleport teleport;
+    if (destination.getWorld() == null
+        || destination.getWorld().isBlank()
+        || destination.getWorld().equals(world.getName())) {
+      teleport = new Teleport(position, rotation);
+    } else {
+      final var targetWorld = Universe.get().getWorld(destination.getWorld());
+      if (targetWorld == null) {
+        LOGGER.at(Level.WARNING).log(
+            "Teleport destination world '%s' is not loaded", destination.getWorld());
+        playerRef.sendMessage(
+            Message.translation(MSG_DESTINATION_WORLD_MISSING)
+                .param(Params.MOD_PREFIX, PREFIX)
+                .param(Params.WORLD, destination.getWorld()));
+        return false;
       }
+      teleport = new Teleport(targetWorld, position, rotation);
     }
+
+    commandBuffer.addComponent(actorRef, Teleport.getComponentType(), teleport);
+    return true;
   }
 
   private void playTeleportSound(
-      Ref<EntityStore> actorRef,
-      CommandBuffer<EntityStore> commandBuffer,
-      String interactionSoundEffectId) {
-    int soundEventIndex = SoundEvent.getAssetMap().getIndex(interactionSoundEffectId);
-    if (soundEventIndex >= 0) {
+      Ref<EntityStore> actorRef, CommandBuffer<EntityStore> commandBuffer, int soundEventIndex) {
+    if (soundEventIndex != PortalSoundEvents.UNKNOWN) {
       SoundUtil.playSoundEvent2d(
           actorRef, soundEventIndex, SoundCategory.SFX, commandBuffer.getStore());
     }
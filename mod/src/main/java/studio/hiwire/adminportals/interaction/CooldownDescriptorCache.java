@@ -0,0 +1,103 @@
+package studio.hiwire.adminportals.interaction;
+
+import com.hypixel.hytale.assetstore.event.LoadedAssetsEvent;
+import com.hypixel.hytale.assetstore.event.RemovedAssetsEvent;
+import com.hypixel.hytale.event.EventRegistration;
+import com.hypixel.hytale.event.EventRegistry;
+import com.hypixel.hytale.server.core.modules.interaction.interaction.CooldownHandler;
+import com.hypixel.hytale.server.core.modules.interaction.interaction.config.RootInteraction;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * Caches the cooldown configuration of {@link RootInteraction}s, so checking the cooldown of a Use
+ * interaction does not re-derive the cooldown ID and charge times on every click.
+ *
+ * <p>Root interactions are keyed by identity, as reloaded assets are new instances. The cache is
+ * cleared whenever root interactions are loaded or removed, so descriptors of replaced assets are
+ * not kept alive. Lookups are lock-free; the map is copied on the rare misses.
+ */
+public class CooldownDescriptorCache {
+
+  /**
+   * The arguments of {@link CooldownHandler#getCooldown} for a root interaction.
+   *
+   * @param chargeTimes shared between all lookups, must not be modified
+   */
+  public record CooldownDescriptor(
+      String cooldownId, float cooldownTime, float[] chargeTimes, boolean interruptRecharge) {
+
+    public boolean hasCooldown(@NonNullDecl CooldownHandler cooldownHandler) {
+      final var forceCooldownCreation = true;
+      final var cooldown =
+          cooldownHandler.getCooldown(
+              cooldownId, cooldownTime, chargeTimes, forceCooldownCreation, interruptRecharge);
+      // cooldown cannot be null
+      return cooldown.hasCooldown(true);
+    }
+  }
+
+  // Cached for root interactions without a cooldown
+  private static final CooldownDescriptor NONE = new CooldownDescriptor(null, 0, null, false);
+
+  private volatile Reference2ObjectOpenHashMap<RootInteraction, CooldownDescriptor> descriptors =
+      new Reference2ObjectOpenHashMap<>();
+  private final EventRegistration<?, ?> loadedAssetsRegistration;
+  private final EventRegistration<?, ?> removedAssetsRegistration;
+
+  public CooldownDescriptorCache(@NonNullDecl EventRegistry eventRegistry) {
+    loadedAssetsRegistration =
+        eventRegistry.register(
+            LoadedAssetsEvent.class, RootInteraction.class, event -> invalidateAll());
+    removedAssetsRegistration =
+        eventRegistry.register(
+            RemovedAssetsEvent.class, RootInteraction.class, event -> invalidateAll());
+  }
+
+  public void shutdown() {
+    loadedAssetsRegistration.unregister();
+    removedAssetsRegistration.unregister();
+    invalidateAll();
+  }
+
+  /**
+   * Returns the cooldown of the root interaction.
+   *
+   * @return the descriptor, or {@code null} if the root interaction has no cooldown configured
+   */
+  @NullableDecl
+  public CooldownDescriptor get(@NonNullDecl RootInteraction rootInteraction) {
+    var descriptor = descriptors.get(rootInteraction);
+    if (descriptor == null) {
+      descriptor = create(rootInteraction);
+      synchronized (this) {
+        final var copy = new Reference2ObjectOpenHashMap<>(descriptors);
+        copy.put(rootInteraction, descriptor);
+        descriptors = copy;
+      }
+    }
+    return descriptor == NONE ? null : descriptor;
+  }
+
+  public synchronized void invalidateAll() {
+    descriptors = new Reference2ObjectOpenHashMap<>();
+  }
+
+  private static CooldownDescriptor create(RootInteraction rootInteraction) {
+    final var cooldownConfig = rootInteraction.getCooldown();
+    if (cooldownConfig == null) {
+      return NONE;
+    }
+
+    final var cooldownId =
+        cooldownConfig.cooldownId != null ? cooldownConfig.cooldownId : rootInteraction.getId();
+    final var cooldownTime = cooldownConfig.cooldown;
+    final var chargeTimes =
+        cooldownConfig.chargeTimes != null
+            ? cooldownConfig.chargeTimes
+            : new float[] {cooldownTime};
+    return new CooldownDescriptor(
+        cooldownId, cooldownTime, chargeTimes, cooldownConfig.interruptRecharge);
+  }
+}
@@ -11,15 +11,12 @@ import com.hypixel.hytale.codec.codecs.EnumCodec;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.logger.HytaleLogger;
-import com.hypixel.hytale.math.util.ChunkUtil;
-import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.protocol.packets.interface_.CustomPageLifetime;
 import com.hypixel.hytale.protocol.packets.interface_.CustomUIEventBindingType;
 import com.hypixel.hytale.protocol.packets.interface_.Page;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.entity.entities.player.pages.InteractiveCustomUIPage;
-import com.hypixel.hytale.server.core.modules.block.BlockModule;
 import com.hypixel.hytale.server.core.permissions.PermissionsModule;
 import com.hypixel.hytale.server.core.ui.DropdownEntryInfo;
 import com.hypixel.hytale.server.core.ui.LocalizableString;
@@ -27,7 +24,6 @@ import com.hypixel.hytale.server.core.ui.builder.EventData;
 import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
 import com.hypixel.hytale.server.core.ui.builder.UIEventBuilder;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
-import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
 import com.hypixel.hytale.server.core.universe.world.meta.state.BlockMapMarker;
 import com.hypixel.hytale.server.core.universe.world.meta.state.BlockMapMarkersResource;
 import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
@@ -36,6 +32,7 @@ import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.ToString;
@@ -43,6 +40,10 @@ import studio.hiwire.adminportals.AdminPortalsPlugin;
 import studio.hiwire.adminportals.Permissions;
 import studio.hiwire.adminportals.TranslationKeys.Params;
 import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.portal.PortalConfigCache;
+import studio.hiwire.adminportals.portal.PortalDestinations;
+import studio.hiwire.adminportals.portal.PortalSoundEvents;
+import studio.hiwire.adminportals.util.BlockEntities;
 
 public class PortalConfigurationPage
     extends InteractiveCustomUIPage<PortalConfigurationPage.PageData> {
@@ -52,16 +53,29 @@ public class PortalConfigurationPage
   @Nonnull private final Ref<ChunkStore> blockRef;
 
   private static final String DEFAULT_MARKER_ICON = "Warp.png";
+  private static final double MIN_RATE_LIMIT_PER_SECOND = 0.01;
+  private static final int MAX_RATE_LIMIT_BURST = 1000;
+  private static final double MAX_COOLDOWN_SECONDS = 86_400;
 
   private static final String MSG_CONFIG_PORTAL = CHAT_MESSAGES + ".Configuration.Portal";
   private static final String MSG_CMD_NOT_SAVED = MSG_CONFIG_PORTAL + ".Command.NotSaved";
   private static final String MSG_CMD_NOT_SAVED_DETAIL_CMD_MISSING =
       MSG_CONFIG_PORTAL + ".Command.NotSaved.Detail.CommandMissing";
+  private static final String MSG_TELEPORT_NOT_SAVED = MSG_CONFIG_PORTAL + ".Teleport.NotSaved";
+  private static final String MSG_TELEPORT_NOT_SAVED_DETAIL_INVALID_POSITION =
+      MSG_CONFIG_PORTAL + ".Teleport.NotSaved.Detail.InvalidPosition";
+  private static final String MSG_TELEPORT_NOT_SAVED_DETAIL_INVALID_ROTATION =
+      MSG_CONFIG_PORTAL + ".Teleport.NotSaved.Detail.InvalidRotation";
   private static final String MSG_PORTAL_SAVED = MSG_CONFIG_PORTAL + ".Saved";
   private static final String MSG_UNKNOWN_PLACEHOLDERS = MSG_CONFIG_PORTAL + ".UnknownPlaceholders";
+  private static final String MSG_UNKNOWN_SOUND_EFFECT = MSG_CONFIG_PORTAL + ".UnknownSoundEffect";
   private static final String MSG_NO_PERMISSION = MSG_CONFIG_PORTAL + ".Edit.NoPermission";
+  private static final String MSG_RATE_LIMIT_INVALID = MSG_CONFIG_PORTAL + ".RateLimit.Invalid";
+  private static final String MSG_COOLDOWN_INVALID = MSG_CONFIG_PORTAL + ".Cooldown.Invalid";
   private static final String UI_PORTAL_TYPE = UI + ".PortalType.";
   private static final String UI_COMMAND_SENDER = UI + ".CommandSender.";
+  private static final String UI_EXECUTION_MODE = UI + ".ExecutionMode.";
+  private static final String UI_PRIORITY = UI + ".Priority.";
 
   private PortalConfigComponent.Type currentType;
   private final List<PortalConfigComponent.CommandEntry> currentCommands = new ObjectArrayList<>();
@@ -70,6 +84,16 @@ public class PortalConfigurationPage
   private String currentInteractionSoundEffectId;
   private boolean currentCollisionInteraction;
   private boolean currentUseInteraction;
+  private String currentTeleportWorld;
+  private String currentTeleportX;
+  private String currentTeleportY;
+  private String currentTeleportZ;
+  private String currentTeleportYaw;
+  private String currentTeleportPitch;
+  private String currentRateLimitPerSecond;
+  private String currentRateLimitBurst;
+  private String currentCooldownSeconds;
+  private boolean currentCooldownGlobal;
 
   public PortalConfigurationPage(
       @Nonnull PlayerRef playerRef,
@@ -110,9 +134,22 @@ public class PortalConfigurationPage
 
     commandBuilder.set("#InteractionSoundEffectId #Input.Value", currentInteractionSoundEffectId);
 
+    commandBuilder.set("#TeleportWorld #Input.Value", currentTeleportWorld);
+    commandBuilder.set("#TeleportX #Input.Value", currentTeleportX);
+    commandBuilder.set("#TeleportY #Input.Value", currentTeleportY);
+    commandBuilder.set("#TeleportZ #Input.Value", currentTeleportZ);
+    commandBuilder.set("#TeleportYaw #Input.Value", currentTeleportYaw);
+    commandBuilder.set("#TeleportPitch #Input.Value", currentTeleportPitch);
+
     commandBuilder.set("#CollisionInteraction #CheckBox.Value", currentCollisionInteraction);
     commandBuilder.set("#UseInteraction #CheckBox.Value", currentUseInteraction);
 
+    commandBuilder.set("#RateLimitPerSecond #Input.Value", currentRateLimitPerSecond);
+    commandBuilder.set("#RateLimitBurst #Input.Value", currentRateLimitBurst);
+
+    commandBuilder.set("#CooldownSeconds #Input.Value", currentCooldownSeconds);
+    commandBuilder.set("#CooldownGlobal #CheckBox.Value", currentCooldownGlobal);
+
     // Update visibility based on type
     updateSectionVisibility(commandBuilder);
 
@@ -141,7 +178,17 @@ public class PortalConfigurationPage
             .append("@MapMarkerIcon", "#MapMarkerIcon #Input.Value")
             .append("@InteractionSoundEffectId", "#InteractionSoundEffectId #Input.Value")
             .append("@CollisionInteraction", "#CollisionInteraction #CheckBox.Value")
-            .append("@UseInteraction", "#UseInteraction #CheckBox.Value"));
+            .append("@UseInteraction", "#UseInteraction #CheckBox.Value")
+            .append("@TeleportWorld", "#TeleportWorld #Input.Value")
+            .append("@TeleportX", "#TeleportX #Input.Value")
+            .append("@TeleportY", "#TeleportY #Input.Value")
+            .append("@TeleportZ", "#TeleportZ #Input.Value")
+            .append("@TeleportYaw", "#TeleportYaw #Input.Value")
+            .append("@TeleportPitch", "#TeleportPitch #Input.Value")
+            .append("@RateLimitPerSecond", "#RateLimitPerSecond #Input.Value")
+            .append("@RateLimitBurst", "#RateLimitBurst #Input.Value")
+            .append("@CooldownSeconds", "#CooldownSeconds #Input.Value")
+            .append("@CooldownGlobal", "#CooldownGlobal #CheckBox.Value"));
   }
 
   private void buildCommandList(
@@ -156,6 +203,20 @@ public class PortalConfigurationPage
               LocalizableString.fromMessageId(UI_COMMAND_SENDER + sender.name()), sender.name()));
     }
 
+    ObjectArrayList<DropdownEntryInfo> modeEntries = new ObjectArrayList<>();
+    for (PortalConfigComponent.ExecutionMode mode : PortalConfigComponent.ExecutionMode.values()) {
+      modeEntries.add(
+          new DropdownEntryInfo(
+              LocalizableString.fromMessageId(UI_EXECUTION_MODE + mode.name()), mode.name()));
+    }
+
+    ObjectArrayList<DropdownEntryInfo> priorityEntries = new ObjectArrayList<>();
+    for (PortalConfigComponent.Priority priority : PortalConfigComponent.Priority.values()) {
+      priorityEntries.add(
+          new DropdownEntryInfo(
+              LocalizableString.fromMessageId(UI_PRIORITY + priority.name()), priority.name()));
+    }
+
     // Top spacer (scrolls with content)
     commandBuilder.append("#CommandList", "Pages/HiWire_AdminPortals_Spacer.ui");
 
@@ -168,6 +229,10 @@ public class PortalConfigurationPage
       commandBuilder.set(selector + " #CommandInput.Value", entry.getCommand());
       commandBuilder.set(selector + " #SenderInput.Entries", (List<?>) senderEntries);
       commandBuilder.set(selector + " #SenderInput.Value", entry.getCommandSender().name());
+      commandBuilder.set(selector + " #ModeInput.Entries", (List<?>) modeEntries);
+      commandBuilder.set(selector + " #ModeInput.Value", entry.getExecutionMode().name());
+      commandBuilder.set(selector + " #PriorityInput.Entries", (List<?>) priorityEntries);
+      commandBuilder.set(selector + " #PriorityInput.Value", entry.getPriority().name());
 
       eventBuilder.addEventBinding(
           CustomUIEventBindingType.ValueChanged,
@@ -187,6 +252,24 @@ public class PortalConfigurationPage
               .append("@CommandSender", selector + " #SenderInput.Value"),
           false);
 
+      eventBuilder.addEventBinding(
+          CustomUIEventBindingType.ValueChanged,
+          selector + " #ModeInput",
+          new EventData()
+              .append("Action", "UpdateExecutionMode")
+              .append("Index", String.valueOf(i))
+              .append("@ExecutionMode", selector + " #ModeInput.Value"),
+          false);
+
+      eventBuilder.addEventBinding(
+          CustomUIEventBindingType.ValueChanged,
+          selector + " #PriorityInput",
+          new EventData()
+              .append("Action", "UpdatePriority")
+              .append("Index", String.valueOf(i))
+              .append("@Priority", selector + " #PriorityInput.Value"),
+          false);
+
       eventBuilder.addEventBinding(
           CustomUIEventBindingType.Activating,
           selector + " #DeleteButton",
@@ -212,6 +295,9 @@ public class PortalConfigurationPage
   private void updateSectionVisibility(@Nonnull UICommandBuilder commandBuilder) {
     boolean isCommand = currentType == PortalConfigComponent.Type.Command;
     commandBuilder.set("#CommandSection.Visible", isCommand);
+    // The destination is always editable: Command portals may declare it so that the
+    // destination chunks are prewarmed before the command teleports the player
+    commandBuilder.set("#TeleportSection.Visible", true);
   }
 
   @Override
@@ -278,6 +364,24 @@ public class PortalConfigurationPage
         }
         break;
 
+      case "UpdateExecutionMode":
+        {
+          int index = parseIndex(data.index);
+          if (index >= 0 && index < currentCommands.size() && data.executionMode != null) {
+            currentCommands.get(index).setExecutionMode(data.executionMode);
+          }
+        }
+        break;
+
+      case "UpdatePriority":
+        {
+          int index = parseIndex(data.index);
+          if (index >= 0 && index < currentCommands.size() && data.priority != null) {
+            currentCommands.get(index).setPriority(data.priority);
+          }
+        }
+        break;
+
       case "Save":
         if (!PermissionsModule.get()
             .hasPermission(playerRef.getUuid(), Permissions.PORTAL_CONFIG_EDIT)) {
@@ -288,8 +392,22 @@ public class PortalConfigurationPage
           return;
         }
 
+        if (!isRateLimitValid(data)) {
+          playerRef.sendMessage(
+              Message.translation(MSG_RATE_LIMIT_INVALID).param(Params.MOD_PREFIX, PREFIX));
+          return;
+        }
+
+        if (!isCooldownValid(data)) {
+          playerRef.sendMessage(
+              Message.translation(MSG_COOLDOWN_INVALID).param(Params.MOD_PREFIX, PREFIX));
+          return;
+        }
+
         if (data.type == PortalConfigComponent.Type.Command) {
           handleCommandSave(data);
+        } else if (data.type == PortalConfigComponent.Type.Teleport) {
+          handleTeleportSave(data);
         }
 
         if (playerComponent != null) {
@@ -309,7 +427,46 @@ public class PortalConfigurationPage
     this.currentCommands.clear();
     for (PortalConfigComponent.CommandEntry entry : config.getCommands()) {
       this.currentCommands.add(
-          new PortalConfigComponent.CommandEntry(entry.getCommand(), entry.getCommandSender()));
+          new PortalConfigComponent.CommandEntry(
+              entry.getCommand(),
+              entry.getCommandSender(),
+              entry.getExecutionMode(),
+              entry.getPriority()));
+    }
+
+    final var destination = config.getTeleportDestination();
+    this.currentTeleportWorld =
+        destination != null && destination.getWorld() != null ? destination.getWorld() : "";
+    this.currentTeleportX = destination != null ? formatNumber(destination.getX()) : "";
+    this.currentTeleportY = destination != null ? formatNumber(destination.getY()) : "";
+    this.currentTeleportZ = destination != null ? formatNumber(destination.getZ()) : "";
+    this.currentTeleportYaw = destination != null ? formatNumber(destination.getYaw()) : "";
+    this.currentTeleportPitch = destination != null ? formatNumber(destination.getPitch()) : "";
+
+    final var rateLimit = config.getRateLimit();
+    this.currentRateLimitPerSecond =
+        rateLimit != null ? formatNumber(rateLimit.getActivationsPerSecond()) : "";
+    this.currentRateLimitBurst = rateLimit != null ? String.valueOf(rateLimit.getBurst()) : "";
+
+    final var cooldown = config.getCooldown();
+    this.currentCooldownSeconds = cooldown != null ? formatNumber(cooldown.getSeconds()) : "";
+    this.currentCooldownGlobal = cooldown != null && cooldown.isGlobal();
+  }
+
+  private static String formatNumber(double value) {
+    return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+  }
+
+  @Nullable
+  private static Double parseNumber(@Nullable String value, @Nullable Double defaultValue) {
+    if (value == null || value.isBlank()) {
+      return defaultValue;
+    }
+    try {
+      final var number = Double.parseDouble(value.trim());
+      return Double.isFinite(number) ? number : null;
+    } catch (NumberFormatException e) {
+      return null;
     }
   }
 
@@ -331,33 +488,12 @@ public class PortalConfigurationPage
       @Nonnull Store<ChunkStore> blockStore,
       @Nullable String mapMarkerName,
       @Nullable String mapMarkerIcon) {
-    // Get block position from BlockStateInfo
-    final var blockInfo =
-        blockStore.getComponent(blockRef, BlockModule.BlockStateInfo.getComponentType());
-    if (blockInfo == null) {
+    final var worldChunk = BlockEntities.getChunk(blockStore, blockRef);
+    final var blockPosition = BlockEntities.getPosition(blockStore, blockRef);
+    if (worldChunk == null || blockPosition == null) {
       return;
     }
 
-    final var chunkRef = blockInfo.getChunkRef();
-    if (!chunkRef.isValid()) {
-      return;
-    }
-
-    WorldChunk worldChunk = blockStore.getComponent(chunkRef, WorldChunk.getComponentType());
-    if (worldChunk == null) {
-      return;
-    }
-
-    // Calculate world position
-    int blockIndex = blockInfo.getIndex();
-    Vector3i blockPosition =
-        new Vector3i(
-            ChunkUtil.worldCoordFromLocalCoord(
-                worldChunk.getX(), ChunkUtil.xFromBlockInColumn(blockIndex)),
-            ChunkUtil.yFromBlockInColumn(blockIndex),
-            ChunkUtil.worldCoordFromLocalCoord(
-                worldChunk.getZ(), ChunkUtil.zFromBlockInColumn(blockIndex)));
-
     // Get the markers resource
     BlockMapMarkersResource resource =
         blockStore.getResource(BlockMapMarkersResource.getResourceType());
@@ -408,9 +544,156 @@ public class PortalConfigurationPage
       return;
     }
 
+    // The destination is optional for command portals, but a partly filled one is not ignored
+    if (hasTeleportDestination(data)) {
+      String destinationError = validateTeleportDestination(data);
+      if (destinationError != null) {
+        sendTeleportNotSaved(destinationError);
+        return;
+      }
+    }
+
     // Remove empty commands
     currentCommands.removeIf(entry -> entry.getCommand() == null || entry.getCommand().isBlank());
 
+    saveConfig(data, parseTeleportDestination(data));
+
+    // Check for unknown placeholders in any command
+    for (PortalConfigComponent.CommandEntry entry : currentCommands) {
+      if (entry.getCommand() != null && !entry.getCommand().isEmpty()) {
+        String missingPlaceholders =
+            AdminPortalsPlugin.get()
+                .getPlaceholderManager()
+                .findMissingPlaceholders(entry.getCommand())
+                .stream()
+                .map(s -> String.format("{%s}", s))
+                .collect(Collectors.joining());
+
+        if (!missingPlaceholders.isEmpty()) {
+          playerRef.sendMessage(
+              Message.translation(MSG_UNKNOWN_PLACEHOLDERS)
+                  .param(Params.MOD_PREFIX, PREFIX)
+                  .param(Params.PLACEHOLDER_LIST, missingPlaceholders));
+        }
+      }
+    }
+  }
+
+  private void handleTeleportSave(PageData data) {
+    String destinationError = validateTeleportDestination(data);
+    if (destinationError != null) {
+      sendTeleportNotSaved(destinationError);
+      return;
+    }
+
+    // Keep non-empty commands so switching the type back does not lose them
+    currentCommands.removeIf(entry -> entry.getCommand() == null || entry.getCommand().isBlank());
+
+    saveConfig(data, parseTeleportDestination(data));
+  }
+
+  private void sendTeleportNotSaved(String detailMessageId) {
+    playerRef.sendMessage(
+        Message.translation(MSG_TELEPORT_NOT_SAVED)
+            .param(Params.DETAIL, Message.translation(detailMessageId))
+            .param(Params.MOD_PREFIX, PREFIX));
+  }
+
+  /** Whether any destination field is filled in. */
+  static boolean hasTeleportDestination(PageData data) {
+    return Stream.of(
+            data.teleportWorld,
+            data.teleportX,
+            data.teleportY,
+            data.teleportZ,
+            data.teleportYaw,
+            data.teleportPitch)
+        .anyMatch(value -> value != null && !value.isBlank());
+  }
+
+  /**
+   * Returns the detail message for the first invalid part of the destination entered in the UI, or
+   * {@code null} if the destination is complete and valid.
+   */
+  @Nullable
+  static String validateTeleportDestination(PageData data) {
+    if (parseNumber(data.teleportX, null) == null
+        || parseNumber(data.teleportY, null) == null
+        || parseNumber(data.teleportZ, null) == null) {
+      return MSG_TELEPORT_NOT_SAVED_DETAIL_INVALID_POSITION;
+    }
+    if (parseNumber(data.teleportYaw, 0.0) == null
+        || parseNumber(data.teleportPitch, 0.0) == null) {
+      return MSG_TELEPORT_NOT_SAVED_DETAIL_INVALID_ROTATION;
+    }
+    return null;
+  }
+
+  /** Returns the destination entered in the UI, or {@code null} if it is incomplete or invalid. */
+  @Nullable
+  private static PortalConfigComponent.TeleportDestination parseTeleportDestination(PageData data) {
+    Double x = parseNumber(data.teleportX, null);
+    Double y = parseNumber(data.teleportY, null);
+    Double z = parseNumber(data.teleportZ, null);
+    Double yaw = parseNumber(data.teleportYaw, 0.0);
+    Double pitch = parseNumber(data.teleportPitch, 0.0);
+    if (x == null || y == null || z == null || yaw == null || pitch == null) {
+      return null;
+    }
+    return new PortalConfigComponent.TeleportDestination(
+        data.teleportWorld != null ? data.teleportWorld.trim() : "",
+        x,
+        y,
+        z,
+        yaw.floatValue(),
+        pitch.floatValue());
+  }
+
+  // An empty rate means no limit, a burst entered without a rate would be lost
+  static boolean isRateLimitValid(PageData data) {
+    if (data.rateLimitPerSecond == null || data.rateLimitPerSecond.isBlank()) {
+      return data.rateLimitBurst == null || data.rateLimitBurst.isBlank();
+    }
+    return parseRateLimit(data) != null;
+  }
+
+  /**
+   * Returns the rate limit entered in the UI, or {@code null} if it is empty or invalid. The burst
+   * defaults to one second worth of activations.
+   */
+  @Nullable
+  static PortalConfigComponent.RateLimit parseRateLimit(PageData data) {
+    Double perSecond = parseNumber(data.rateLimitPerSecond, null);
+    if (perSecond == null || perSecond < MIN_RATE_LIMIT_PER_SECOND) {
+      return null;
+    }
+    Double burst = parseNumber(data.rateLimitBurst, Math.max(1.0, Math.ceil(perSecond)));
+    if (burst == null || burst != Math.rint(burst) || burst < 1 || burst > MAX_RATE_LIMIT_BURST) {
+      return null;
+    }
+    return new PortalConfigComponent.RateLimit(perSecond, burst.intValue());
+  }
+
+  private static boolean isCooldownValid(PageData data) {
+    Double seconds = parseNumber(data.cooldownSeconds, 0.0);
+    return seconds != null && seconds >= 0 && seconds <= MAX_COOLDOWN_SECONDS;
+  }
+
+  /**
+   * Returns the cooldown entered in the UI, or {@code null} if it is empty, zero or invalid. A
+   * global cooldown without seconds is no cooldown either.
+   */
+  @Nullable
+  static PortalConfigComponent.Cooldown parseCooldown(PageData data) {
+    Double seconds = parseNumber(data.cooldownSeconds, null);
+    if (seconds == null || seconds <= 0 || seconds > MAX_COOLDOWN_SECONDS) {
+      return null;
+    }
+    return new PortalConfigComponent.Cooldown(seconds, data.cooldownGlobal);
+  }
+
+  private void saveConfig(
+      PageData data, @Nullable PortalConfigComponent.TeleportDestination teleportDestination) {
     PortalConfigComponent.CommandEntry[] commandsArray =
         currentCommands.toArray(new PortalConfigComponent.CommandEntry[0]);
 
@@ -422,34 +705,29 @@ public class PortalConfigurationPage
             commandsArray,
             data.interactionSoundEffectId,
             data.collisionInteraction,
-            data.useInteraction);
+            data.useInteraction,
+            teleportDestination,
+            parseRateLimit(data),
+            parseCooldown(data));
 
     Store<ChunkStore> blockStore = blockRef.getStore();
     blockStore.putComponent(blockRef, PortalConfigComponent.getComponentType(), newConfig);
+    blockStore.getResource(PortalConfigCache.getResourceType()).invalidate(blockRef);
+    blockStore.getResource(PortalDestinations.getResourceType()).update(blockRef, blockStore);
 
     // Handle BlockMapMarker
     updateBlockMapMarker(blockStore, data.mapMarkerName, data.mapMarkerIcon);
 
     playerRef.sendMessage(Message.translation(MSG_PORTAL_SAVED).param(Params.MOD_PREFIX, PREFIX));
 
-    // Check for unknown placeholders in any command
-    for (PortalConfigComponent.CommandEntry entry : currentCommands) {
-      if (entry.getCommand() != null && !entry.getCommand().isEmpty()) {
-        String missingPlaceholders =
-            AdminPortalsPlugin.get()
-                .getPlaceholderManager()
-                .findMissingPlaceholders(entry.getCommand())
-                .stream()
-                .map(s -> String.format("{%s}", s))
-                .collect(Collectors.joining());
-
-        if (!missingPlaceholders.isEmpty()) {
-          playerRef.sendMessage(
-              Message.translation(MSG_UNKNOWN_PLACEHOLDERS)
-                  .param(Params.MOD_PREFIX, PREFIX)
-                  .param(Params.PLACEHOLDER_LIST, missingPlaceholders));
-        }
-      }
+    // Portals with an unknown sound effect play no sound, so report it while the page is open
+    final var soundEffectId = newConfig.normalized().getInteractionSoundEffectId();
+    if (!soundEffectId.isBlank()
+        && PortalSoundEvents.indexOf(soundEffectId) == PortalSoundEvents.UNKNOWN) {
+      playerRef.sendMessage(
+          Message.translation(MSG_UNKNOWN_SOUND_EFFECT)
+              .param(Params.MOD_PREFIX, PREFIX)
+              .param(Params.SOUND_EFFECT, soundEffectId));
     }
   }
 
@@ -461,11 +739,23 @@ public class PortalConfigurationPage
     public PortalConfigComponent.Type type;
     public String command;
     public PortalConfigComponent.CommandSender commandSender;
+    public PortalConfigComponent.ExecutionMode executionMode;
+    public PortalConfigComponent.Priority priority;
     public String mapMarkerName;
     public String mapMarkerIcon;
     public String interactionSoundEffectId;
     public boolean collisionInteraction;
     public boolean useInteraction;
+    public String teleportWorld;
+    public String teleportX;
+    public String teleportY;
+    public String teleportZ;
+    public String teleportYaw;
+    public String teleportPitch;
+    public String rateLimitPerSecond;
+    public String rateLimitBurst;
+    public String cooldownSeconds;
+    public boolean cooldownGlobal;
     public String index;
 
     static {
@@ -496,6 +786,23 @@ public class PortalConfigurationPage
                   (o, i) -> o.commandSender = i,
                   o -> o.commandSender)
               .add()
+              .append(
+                  new KeyedCodec<>(
+                      "@ExecutionMode",
+                      new EnumCodec<>(
+                          PortalConfigComponent.ExecutionMode.class,
+                          EnumCodec.EnumStyle.CAMEL_CASE)),
+                  (o, i) -> o.executionMode = i,
+                  o -> o.executionMode)
+              .add()
+              .append(
+                  new KeyedCodec<>(
+                      "@Priority",
+                      new EnumCodec<>(
+                          PortalConfigComponent.Priority.class, EnumCodec.EnumStyle.CAMEL_CASE)),
+                  (o, i) -> o.priority = i,
+                  o -> o.priority)
+              .add()
               .append(
                   new KeyedCodec<>("@MapMarkerName", Codec.STRING),
                   (o, i) -> o.mapMarkerName = i,
@@ -521,6 +828,56 @@ public class PortalConfigurationPage
                   (o, i) -> o.useInteraction = i,
                   o -> o.useInteraction)
               .add()
+              .append(
+                  new KeyedCodec<>("@TeleportWorld", Codec.STRING),
+                  (o, i) -> o.teleportWorld = i,
+                  o -> o.teleportWorld)
+              .add()
+              .append(
+                  new KeyedCodec<>("@TeleportX", Codec.STRING),
+                  (o, i) -> o.teleportX = i,
+                  o -> o.teleportX)
+              .add()
+              .append(
+                  new KeyedCodec<>("@TeleportY", Codec.STRING),
+                  (o, i) -> o.teleportY = i,
+                  o -> o.teleportY)
+              .add()
+              .append(
+                  new KeyedCodec<>("@TeleportZ", Codec.STRING),
+                  (o, i) -> o.teleportZ = i,
+                  o -> o.teleportZ)
+              .add()
+              .append(
+                  new KeyedCodec<>("@TeleportYaw", Codec.STRING),
+                  (o, i) -> o.teleportYaw = i,
+                  o -> o.teleportYaw)
+              .add()
+              .append(
+                  new KeyedCodec<>("@TeleportPitch", Codec.STRING),
+                  (o, i) -> o.teleportPitch = i,
+                  o -> o.teleportPitch)
+              .add()
+              .append(
+                  new KeyedCodec<>("@RateLimitPerSecond", Codec.STRING),
+                  (o, i) -> o.rateLimitPerSecond = i,
+                  o -> o.rateLimitPerSecond)
+              .add()
+              .append(
+                  new KeyedCodec<>("@RateLimitBurst", Codec.STRING),
+                  (o, i) -> o.rateLimitBurst = i,
+                  o -> o.rateLimitBurst)
+              .add()
+              .append(
+                  new KeyedCodec<>("@CooldownSeconds", Codec.STRING),
+                  (o, i) -> o.cooldownSeconds = i,
+                  o -> o.cooldownSeconds)
+              .add()
+              .append(
+                  new KeyedCodec<>("@CooldownGlobal", Codec.BOOLEAN),
+                  (o, i) -> o.cooldownGlobal = i,
+                  o -> o.cooldownGlobal)
+              .add()
               .append(new KeyedCodec<>("Index", Codec.STRING), (o, i) -> o.index = i, o -> o.index)
               .add()
               .build();
@@ -0,0 +1,24 @@
+package studio.hiwire.adminportals.placeholder;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * A {@link PlaceholderProvider} that writes its value directly into the command being rendered
+ * instead of returning a {@link String}, e.g. {@code (target, ctx) -> target.append(ctx.pos().x)}.
+ *
+ * <p>Appending providers are meant to be cheap and are not memoized per activation; wrap expensive
+ * lookups in a regular provider with a suitable {@link PlaceholderScope} instead.
+ */
+@FunctionalInterface
+public interface AppendingPlaceholderProvider extends PlaceholderProvider {
+
+  @Override
+  void appendTo(@NonNullDecl StringBuilder target, PlaceholderContext context);
+
+  @Override
+  default String resolve(PlaceholderContext context) {
+    final var value = new StringBuilder();
+    appendTo(value, context);
+    return value.toString();
+  }
+}
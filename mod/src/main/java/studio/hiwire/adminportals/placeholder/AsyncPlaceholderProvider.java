@@ -0,0 +1,46 @@
+package studio.hiwire.adminportals.placeholder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link PlaceholderProvider} whose value needs I/O, e.g. a rank stored in a database. Portals
+ * using async placeholders start all lookups of an activation at once and dispatch their commands
+ * once every lookup completed, failed or ran past its {@link #getDeadline() deadline}, in which
+ * case the {@link #getFallback() fallback} is used.
+ *
+ * <p>{@link #resolveAsync(PlaceholderContext)} is called on the world thread and must not block:
+ * read what is needed from the context right away and do the I/O on another executor. The context
+ * must not be used once the method has returned. Values are shared within one activation, but are
+ * not cached across activations regardless of the provider's {@link PlaceholderScope}.
+ */
+public interface AsyncPlaceholderProvider extends PlaceholderProvider {
+
+  Duration DEFAULT_DEADLINE = Duration.ofSeconds(2);
+
+  CompletableFuture<String> resolveAsync(PlaceholderContext context);
+
+  /** Maximum time to wait for the value before the fallback is used. */
+  default Duration getDeadline() {
+    return DEFAULT_DEADLINE;
+  }
+
+  /** Value used when the lookup fails or does not complete before the deadline. */
+  default String getFallback() {
+    return "";
+  }
+
+  /**
+   * Synchronous access for callers that cannot wait, e.g. {@link PlaceholderManager#process}.
+   * Returns the value if the lookup completes immediately, otherwise the fallback.
+   */
+  @Override
+  default String resolve(PlaceholderContext context) {
+    try {
+      final var value = resolveAsync(context).getNow(null);
+      return value != null ? value : getFallback();
+    } catch (Exception e) {
+      return getFallback();
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package studio.hiwire.adminportals.placeholder;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * Caches the values of a {@link PlaceholderProvider} for its {@link PlaceholderScope}. Created by
+ * the {@link PlaceholderManager} on registration, so the cache lives exactly as long as the
+ * registration. Safe for concurrent use by several world threads.
+ */
+final class CachingPlaceholderProvider implements PlaceholderProvider {
+
+  // Player scoped values of players that left are not tracked; start over instead of growing
+  static final int MAX_ENTRIES = 4096;
+  private static final Object SERVER_KEY = new Object();
+
+  private record CachedValue(String value, long expiresAt) {}
+
+  private final PlaceholderProvider delegate;
+  private final PlaceholderScope scope;
+  // 0 = no expiry
+  private final long ttlNanos;
+  private final LongSupplier nanoTime;
+  private final ConcurrentHashMap<Object, CachedValue> values = new ConcurrentHashMap<>();
+
+  CachingPlaceholderProvider(@NonNullDecl PlaceholderProvider delegate) {
+    this(delegate, System::nanoTime);
+  }
+
+  CachingPlaceholderProvider(
+      @NonNullDecl PlaceholderProvider delegate, @NonNullDecl LongSupplier nanoTime) {
+    this.delegate = delegate;
+    this.scope = delegate.getScope();
+    final var ttl = delegate.getTtl();
+    this.ttlNanos = ttl == null || ttl.isNegative() ? 0 : ttl.toNanos();
+    this.nanoTime = nanoTime;
+  }
+
+  /** Whether values of providers with this scope are cached across activations. */
+  static boolean isCachedScope(PlaceholderScope scope) {
+    return switch (scope) {
+      case Player, World, Server, Constant -> true;
+      case Uncached, Activation -> false;
+    };
+  }
+
+  @Override
+  public String resolve(PlaceholderContext context) {
+    final var key = key(context);
+    final var now = nanoTime.getAsLong();
+
+    final var cached = values.get(key);
+    if (cached != null && (ttlNanos == 0 || now - cached.expiresAt() < 0)) {
+      return cached.value();
+    }
+
+    // Concurrent misses may resolve twice, which is cheaper than blocking a world thread
+    final var value = delegate.resolve(context);
+    if (values.size() >= MAX_ENTRIES) {
+      values.clear();
+    }
+    values.put(key, new CachedValue(value, now + ttlNanos));
+    return value;
+  }
+
+  private Object key(PlaceholderContext context) {
+    return switch (scope) {
+      case Player -> context.playerRef().getUuid();
+      case World -> context.world().getName();
+      default -> SERVER_KEY;
+    };
+  }
+
+  @Override
+  public PlaceholderScope getScope() {
+    return scope;
+  }
+
+  @Override
+  public Duration getTtl() {
+    return delegate.getTtl();
+  }
+}
@@ -11,7 +11,7 @@ import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
-import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.portal.ResolvedPortalConfig;
 
 public record PlaceholderContext(
     @NonNullDecl World world,
@@ -22,4 +22,4 @@ public record PlaceholderContext(
     @NonNullDecl Vector3i pos,
     @NonNullDecl CooldownHandler cooldownHandler,
     @NonNullDecl PlayerRef playerRef,
-    @NonNullDecl PortalConfigComponent portalConfig) {}
+    @NonNullDecl ResolvedPortalConfig portalConfig) {}
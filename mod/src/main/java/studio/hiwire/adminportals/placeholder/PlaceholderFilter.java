@@ -0,0 +1,200 @@
+package studio.hiwire.adminportals.placeholder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * A transformation of a placeholder value, written after the placeholder name as in {@code
+ * {PosY|add:2}} or {@code {PlayerUsername|lower|default:nobody}}. Filter chains are parsed once
+ * when a template is compiled, arguments included, so rendering only applies the operations.
+ *
+ * <p>Arithmetic filters ({@code add}, {@code sub}, {@code mul}, {@code div}) use integer arithmetic
+ * when both the value and the argument are integers, with {@code div} rounding down like block
+ * coordinates do, and decimal arithmetic otherwise. Numbers are limited to {@value
+ * Arithmetic#MAX_DIGITS} digits before and after the decimal point: arguments outside that range
+ * do not parse, and values that are not numbers or whose result would be outside of it are left
+ * unchanged.
+ */
+@FunctionalInterface
+interface PlaceholderFilter {
+
+  char SEPARATOR = '|';
+
+  String apply(@NonNullDecl String value);
+
+  /**
+   * Applies the filter to a provider value. Providers may return {@code null}, which the filters
+   * see as an empty value, so that {@code default:} replaces it.
+   */
+  default String applyNullable(@NullableDecl String value) {
+    return apply(value != null ? value : "");
+  }
+
+  /**
+   * Parses a filter chain such as {@code add:2|lower}.
+   *
+   * @return the compiled chain, or {@code null} if any filter is unknown or has an invalid argument
+   */
+  @NullableDecl
+  static PlaceholderFilter parse(@NonNullDecl String chain) {
+    PlaceholderFilter result = null;
+    int start = 0;
+    while (start <= chain.length()) {
+      var end = chain.indexOf(SEPARATOR, start);
+      if (end < 0) {
+        end = chain.length();
+      }
+      final var filter = parseSingle(chain.substring(start, end).trim());
+      if (filter == null) {
+        return null;
+      }
+      result = result == null ? filter : andThen(result, filter);
+      start = end + 1;
+    }
+    return result;
+  }
+
+  private static PlaceholderFilter andThen(PlaceholderFilter first, PlaceholderFilter second) {
+    return value -> second.apply(first.apply(value));
+  }
+
+  @NullableDecl
+  private static PlaceholderFilter parseSingle(String filter) {
+    final var colon = filter.indexOf(':');
+    final var name = (colon < 0 ? filter : filter.substring(0, colon)).trim();
+    final var argument = colon < 0 ? null : filter.substring(colon + 1);
+
+    return switch (name) {
+      case "lower" -> argument == null ? value -> value.toLowerCase(Locale.ROOT) : null;
+      case "upper" -> argument == null ? value -> value.toUpperCase(Locale.ROOT) : null;
+      case "trim" -> argument == null ? String::strip : null;
+      case "default" -> argument != null ? value -> value.isEmpty() ? argument : value : null;
+      case "add" -> Arithmetic.parse(Arithmetic.Operation.Add, argument);
+      case "sub" -> Arithmetic.parse(Arithmetic.Operation.Subtract, argument);
+      case "mul" -> Arithmetic.parse(Arithmetic.Operation.Multiply, argument);
+      case "div" -> Arithmetic.parse(Arithmetic.Operation.Divide, argument);
+      default -> null;
+    };
+  }
+
+  /** An arithmetic operation with its argument parsed at compile time. */
+  final class Arithmetic implements PlaceholderFilter {
+
+    enum Operation {
+      Add,
+      Subtract,
+      Multiply,
+      Divide
+    }
+
+    // Bounds the work and the length of results, e.g. for exponents such as 1e999999999
+    static final int MAX_DIGITS = 34;
+
+    private final Operation operation;
+    // Set if the argument is an integer
+    private final boolean integral;
+    private final long longArgument;
+    private final BigDecimal decimalArgument;
+
+    private Arithmetic(Operation operation, BigDecimal argument) {
+      this.operation = operation;
+      this.decimalArgument = argument;
+      this.integral = argument.stripTrailingZeros().scale() <= 0 && fitsLong(argument);
+      this.longArgument = integral ? argument.longValue() : 0;
+    }
+
+    @NullableDecl
+    static PlaceholderFilter parse(Operation operation, @NullableDecl String argument) {
+      if (argument == null) {
+        return null;
+      }
+      final BigDecimal parsed;
+      try {
+        parsed = new BigDecimal(argument.trim());
+      } catch (NumberFormatException e) {
+        return null;
+      }
+      if (!isInRange(parsed) || operation == Operation.Divide && parsed.signum() == 0) {
+        return null;
+      }
+      return new Arithmetic(operation, parsed);
+    }
+
+    @Override
+    public String apply(String value) {
+      if (integral && isInteger(value)) {
+        try {
+          return Long.toString(applyLong(Long.parseLong(value)));
+        } catch (NumberFormatException | ArithmeticException e) {
+          // Out of the long range, use decimal arithmetic
+        }
+      }
+
+      final BigDecimal decimal;
+      try {
+        decimal = new BigDecimal(value.trim());
+      } catch (NumberFormatException e) {
+        return value;
+      }
+      if (!isInRange(decimal)) {
+        return value;
+      }
+      final var result = applyDecimal(decimal);
+      return isInRange(result) ? format(result) : value;
+    }
+
+    private long applyLong(long value) {
+      return switch (operation) {
+        case Add -> Math.addExact(value, longArgument);
+        case Subtract -> Math.subtractExact(value, longArgument);
+        case Multiply -> Math.multiplyExact(value, longArgument);
+        case Divide -> Math.floorDivExact(value, longArgument);
+      };
+    }
+
+    private BigDecimal applyDecimal(BigDecimal value) {
+      return switch (operation) {
+        case Add -> value.add(decimalArgument);
+        case Subtract -> value.subtract(decimalArgument);
+        case Multiply -> value.multiply(decimalArgument);
+        case Divide -> value.divide(decimalArgument, 6, RoundingMode.HALF_UP);
+      };
+    }
+
+    private static String format(BigDecimal value) {
+      final var stripped = value.stripTrailingZeros();
+      return stripped.signum() == 0 ? "0" : stripped.toPlainString();
+    }
+
+    private static boolean isInteger(String value) {
+      if (value.isEmpty() || value.length() > 19) {
+        return false;
+      }
+      for (int i = value.charAt(0) == '-' && value.length() > 1 ? 1 : 0; i < value.length(); i++) {
+        final var c = value.charAt(i);
+        if (c < '0' || c > '9') {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static boolean isInRange(BigDecimal value) {
+      final var stripped = value.stripTrailingZeros();
+      return stripped.scale() <= MAX_DIGITS
+          && stripped.precision() - stripped.scale() <= MAX_DIGITS;
+    }
+
+    private static boolean fitsLong(BigDecimal value) {
+      try {
+        value.longValueExact();
+        return true;
+      } catch (ArithmeticException e) {
+        return false;
+      }
+    }
+  }
+}
@@ -1,71 +1,275 @@
 package studio.hiwire.adminportals.placeholder;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 
+/**
+ * Registry of placeholder providers. Safe to use from any thread: the registered providers are kept
+ * in an immutable snapshot that is replaced atomically on every change, so lookups and compilation
+ * never take a lock, and a batch registered with {@link #registerAll(Map)} becomes visible at once.
+ */
 public class PlaceholderManager {
 
   private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{([^}]+)}");
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
-  private final Map<String, PlaceholderProvider> placeholders = new HashMap<>();
+  /**
+   * Immutable registry state. The version is bumped on every change so compiled templates can
+   * detect stale provider references.
+   */
+  private record Snapshot(
+      Map<String, PlaceholderProvider> providers,
+      Map<String, PlaceholderStats> stats,
+      int version) {}
+
+  private static final StackWalker STACK_WALKER =
+      StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+  private final AtomicReference<Snapshot> snapshot =
+      new AtomicReference<>(new Snapshot(Map.of(), Map.of(), 0));
+  private final List<Consumer<String>> unregisterListeners = new CopyOnWriteArrayList<>();
 
   public PlaceholderManager() {
     registerDefaults();
   }
 
   public void register(@NonNullDecl String name, @NonNullDecl PlaceholderProvider provider) {
-    if (name.isBlank()) {
-      throw new IllegalArgumentException("Placeholder name cannot be blank");
+    registerAll(Map.of(name, provider));
+  }
+
+  public void register(
+      @NonNullDecl String name, @NonNullDecl AppendingPlaceholderProvider provider) {
+    register(name, (PlaceholderProvider) provider);
+  }
+
+  /**
+   * Registers several placeholders at once. Either all of them are registered and published in a
+   * single registry change, or none is if any name is blank or already registered.
+   *
+   * @param providers placeholder names mapped to their providers
+   */
+  public void registerAll(@NonNullDecl Map<String, PlaceholderProvider> providers) {
+    for (String name : providers.keySet()) {
+      if (name.isBlank()) {
+        throw new IllegalArgumentException("Placeholder name cannot be blank");
+      }
     }
-    if (placeholders.containsKey(name)) {
-      throw new IllegalArgumentException("Placeholder '" + name + "' is already registered");
+    if (providers.isEmpty()) {
+      return;
     }
-    placeholders.put(name, provider);
+
+    final var owner = describeOwner(STACK_WALKER.walk(this::findCaller));
+    Snapshot current;
+    Snapshot updated;
+    do {
+      current = snapshot.get();
+      for (String name : providers.keySet()) {
+        if (current.providers().containsKey(name)) {
+          throw new IllegalArgumentException("Placeholder '" + name + "' is already registered");
+        }
+      }
+      final var merged = new HashMap<>(current.providers());
+      final var mergedStats = new HashMap<>(current.stats());
+      providers.forEach(
+          (name, provider) -> {
+            final var stats = new PlaceholderStats(name, owner);
+            // Timed inside the cache, so only actual provider calls are recorded
+            merged.put(name, withCache(TimedPlaceholderProvider.wrap(provider, stats)));
+            mergedStats.put(name, stats);
+          });
+      updated = new Snapshot(Map.copyOf(merged), Map.copyOf(mergedStats), current.version() + 1);
+    } while (!snapshot.compareAndSet(current, updated));
   }
 
   public boolean unregister(@NonNullDecl String name) {
     if (name.isBlank()) {
       throw new IllegalArgumentException("Placeholder name cannot be blank");
     }
-    return placeholders.remove(name) != null;
+
+    Snapshot current;
+    Snapshot updated;
+    do {
+      current = snapshot.get();
+      if (!current.providers().containsKey(name)) {
+        return false;
+      }
+      final var remaining = new HashMap<>(current.providers());
+      remaining.remove(name);
+      final var remainingStats = new HashMap<>(current.stats());
+      remainingStats.remove(name);
+      updated =
+          new Snapshot(Map.copyOf(remaining), Map.copyOf(remainingStats), current.version() + 1);
+    } while (!snapshot.compareAndSet(current, updated));
+
+    for (Consumer<String> listener : unregisterListeners) {
+      listener.accept(name);
+    }
+    return true;
+  }
+
+  /**
+   * Adds a listener called with the name of every unregistered placeholder, on the thread that
+   * unregistered it and after the change was published.
+   */
+  public void addUnregisterListener(@NonNullDecl Consumer<String> listener) {
+    unregisterListeners.add(listener);
   }
 
   public boolean isRegistered(@NonNullDecl String name) {
-    return placeholders.containsKey(name);
+    return snapshot.get().providers().containsKey(name);
   }
 
+  /** Returns the names registered at the time of the call, unaffected by later changes. */
   public Set<String> getRegisteredNames() {
-    return Collections.unmodifiableSet(placeholders.keySet());
+    return snapshot.get().providers().keySet();
+  }
+
+  /**
+   * Returns the resolve statistics of all registered placeholders. Statistics are kept for as long
+   * as the placeholder stays registered.
+   */
+  public Collection<PlaceholderStats> getStats() {
+    return snapshot.get().stats().values();
+  }
+
+  /** Returns the current registry version, bumped on every successful registry change. */
+  public int getVersion() {
+    return snapshot.get().version();
   }
 
   public String process(@NonNullDecl String input, @NonNullDecl PlaceholderContext context) {
-    if (input.isEmpty()) {
+    if (input.indexOf('{') < 0) {
       return input;
     }
 
+    return compile(input).render(context);
+  }
+
+  /**
+   * Compiles the input into a {@link PlaceholderTemplate} with all registered providers resolved.
+   * Unknown placeholders and placeholders with invalid filters are kept as literal text, {@link
+   * PlaceholderScope#Constant} placeholders are replaced by their value.
+   *
+   * @param input the string containing placeholders
+   * @return the compiled template
+   */
+  public PlaceholderTemplate compile(@NonNullDecl String input) {
+    // Read once, so the template's version matches the providers it references
+    final var current = snapshot.get();
+    if (input.indexOf('{') < 0) {
+      // Nothing to match, skip the regex
+      return new PlaceholderTemplate(
+          input,
+          new String[] {input},
+          new PlaceholderProvider[0],
+          new PlaceholderStats[0],
+          new PlaceholderFilter[0],
+          current.version());
+    }
+    List<String> literals = new ArrayList<>();
+    List<PlaceholderProvider> providers = new ArrayList<>();
+    List<PlaceholderStats> appendingStats = new ArrayList<>();
+    List<PlaceholderFilter> filters = new ArrayList<>();
+
     Matcher matcher = PLACEHOLDER_PATTERN.matcher(input);
-    StringBuilder result = new StringBuilder();
+    StringBuilder literal = new StringBuilder();
+    int literalStart = 0;
 
     while (matcher.find()) {
-      String placeholderName = matcher.group(1);
-      PlaceholderProvider provider = placeholders.get(placeholderName);
+      final var expression = matcher.group(1);
+      final var separator = expression.indexOf(PlaceholderFilter.SEPARATOR);
+      final var name = separator < 0 ? expression : expression.substring(0, separator).strip();
+      PlaceholderProvider provider = current.providers().get(name);
+      final var filter =
+          separator < 0 ? null : PlaceholderFilter.parse(expression.substring(separator + 1));
+      if (provider == null || (separator >= 0 && filter == null)) {
+        // Keep original if not found or the filters are invalid
+        continue;
+      }
+
+      literal.append(input, literalStart, matcher.start());
+      if (provider.getScope() == PlaceholderScope.Constant) {
+        // Fold constants into the surrounding literal text
+        final var value = provider.resolve(null);
+        literal.append(filter != null ? filter.applyNullable(value) : value);
+        literalStart = matcher.end();
+        continue;
+      }
+      literals.add(literal.toString());
+      literal.setLength(0);
+      providers.add(provider);
+      appendingStats.add(
+          provider instanceof AppendingPlaceholderProvider ? current.stats().get(name) : null);
+      filters.add(filter);
+      literalStart = matcher.end();
+    }
+    literal.append(input, literalStart, input.length());
+    // Without any known placeholder the template renders to the input instance itself
+    literals.add(literalStart == 0 ? input : literal.toString());
 
-      String replacement =
-          provider != null
-              ? provider.resolve(context)
-              : matcher.group(0); // Keep original if not found
+    return new PlaceholderTemplate(
+        input,
+        literals.toArray(new String[0]),
+        providers.toArray(new PlaceholderProvider[0]),
+        appendingStats.toArray(new PlaceholderStats[0]),
+        filters.toArray(new PlaceholderFilter[0]),
+        current.version());
+  }
+
+  private Class<?> findCaller(Stream<StackWalker.StackFrame> frames) {
+    return frames
+        .map(StackWalker.StackFrame::getDeclaringClass)
+        .filter(type -> type != PlaceholderManager.class)
+        .findFirst()
+        .orElse(PlaceholderManager.class);
+  }
 
-      matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+  /**
+   * Names the plugin a registering class belongs to: this plugin for its own classes, otherwise the
+   * file the class was loaded from, e.g. the plugin's JAR.
+   */
+  private static String describeOwner(Class<?> caller) {
+    if (caller.getClassLoader() == PlaceholderManager.class.getClassLoader()) {
+      return "AdminPortals";
+    }
+    try {
+      final var codeSource = caller.getProtectionDomain().getCodeSource();
+      if (codeSource != null && codeSource.getLocation() != null) {
+        final var path = codeSource.getLocation().getPath();
+        final var trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        return trimmed.substring(trimmed.lastIndexOf('/') + 1);
+      }
+    } catch (SecurityException ignored) {
+      // Fall back to the package name
     }
-    matcher.appendTail(result);
+    return caller.getPackageName();
+  }
+
+  private static PlaceholderProvider withCache(PlaceholderProvider provider) {
+    return !(provider instanceof AsyncPlaceholderProvider)
+            && CachingPlaceholderProvider.isCachedScope(provider.getScope())
+        ? new CachingPlaceholderProvider(provider)
+        : provider;
+  }
 
-    return result.toString();
+  /** Returns {@code true} if the template was compiled against the current set of providers. */
+  public boolean isCurrent(@NonNullDecl PlaceholderTemplate template) {
+    return template.getRegistryVersion() == snapshot.get().version();
   }
 
   /**
@@ -79,13 +283,23 @@ public class PlaceholderManager {
       return Collections.emptySet();
     }
 
+    final var providers = snapshot.get().providers();
     Set<String> missing = new HashSet<>();
     Matcher matcher = PLACEHOLDER_PATTERN.matcher(input);
 
     while (matcher.find()) {
-      String placeholderName = matcher.group(1);
-      if (!placeholders.containsKey(placeholderName)) {
-        missing.add(placeholderName);
+      final var expression = matcher.group(1);
+      final var separator = expression.indexOf(PlaceholderFilter.SEPARATOR);
+      if (separator < 0) {
+        if (!providers.containsKey(expression)) {
+          missing.add(expression);
+        }
+        continue;
+      }
+      // Unknown filters leave the placeholder unresolved as well
+      if (!providers.containsKey(expression.substring(0, separator).strip())
+          || PlaceholderFilter.parse(expression.substring(separator + 1)) == null) {
+        missing.add(expression);
       }
     }
 
@@ -93,13 +307,40 @@ public class PlaceholderManager {
   }
 
   private void registerDefaults() {
-    register("PlayerUsername", ctx -> ctx.playerRef().getUsername());
-    register("PlayerUuid", ctx -> ctx.playerRef().getUuid().toString());
+    final var defaults = new LinkedHashMap<String, PlaceholderProvider>();
+    defaults.put("PlayerUsername", appending((t, ctx) -> t.append(ctx.playerRef().getUsername())));
+    defaults.put("PlayerUuid", appending((t, ctx) -> appendUuid(t, ctx.playerRef().getUuid())));
 
-    register("PosX", ctx -> String.valueOf(ctx.pos().x));
-    register("PosY", ctx -> String.valueOf(ctx.pos().y));
-    register("PosZ", ctx -> String.valueOf(ctx.pos().z));
+    defaults.put("PosX", appending((t, ctx) -> t.append(ctx.pos().x)));
+    defaults.put("PosY", appending((t, ctx) -> t.append(ctx.pos().y)));
+    defaults.put("PosZ", appending((t, ctx) -> t.append(ctx.pos().z)));
 
-    register("WorldName", ctx -> ctx.world().getName());
+    defaults.put("WorldName", appending((t, ctx) -> t.append(ctx.world().getName())));
+    registerAll(defaults);
+  }
+
+  private static AppendingPlaceholderProvider appending(AppendingPlaceholderProvider provider) {
+    return provider;
+  }
+
+  /** Appends the UUID in the format of {@link UUID#toString()} without creating a string. */
+  static void appendUuid(StringBuilder target, UUID uuid) {
+    final var msb = uuid.getMostSignificantBits();
+    final var lsb = uuid.getLeastSignificantBits();
+    appendHex(target, msb >>> 32, 8);
+    target.append('-');
+    appendHex(target, msb >>> 16, 4);
+    target.append('-');
+    appendHex(target, msb, 4);
+    target.append('-');
+    appendHex(target, lsb >>> 48, 4);
+    target.append('-');
+    appendHex(target, lsb, 12);
+  }
+
+  private static void appendHex(StringBuilder target, long value, int digits) {
+    for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+      target.append(HEX_DIGITS[(int) (value >>> shift) & 0xF]);
+    }
   }
 }
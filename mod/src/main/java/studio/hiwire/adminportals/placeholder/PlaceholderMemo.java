@@ -0,0 +1,104 @@
+package studio.hiwire.adminportals.placeholder;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * Remembers provider results for the duration of one portal activation, so a placeholder used by
+ * several commands of a portal is only resolved once. Providers that are not {@link
+ * PlaceholderProvider#isCacheable() cacheable} are always resolved.
+ *
+ * <p>Instances are reused per thread: obtain one with {@link #acquire()} and release it with
+ * {@link #close()} when the activation is done.
+ */
+public final class PlaceholderMemo implements AutoCloseable {
+
+  private static final ThreadLocal<PlaceholderMemo> CURRENT =
+      ThreadLocal.withInitial(PlaceholderMemo::new);
+
+  // Activations rarely use more than a handful of distinct placeholders, a linear scan is cheapest
+  private PlaceholderProvider[] providers = new PlaceholderProvider[8];
+  private String[] values = new String[8];
+  private int size;
+  // Async lookups started during the activation
+  private AsyncPlaceholderProvider[] asyncProviders = new AsyncPlaceholderProvider[4];
+  private CompletableFuture<String>[] asyncValues = newFutureArray(4);
+  private int asyncSize;
+  private boolean inUse;
+
+  private PlaceholderMemo() {}
+
+  /** Returns this thread's memo, or a new one if it is already in use by an outer activation. */
+  public static PlaceholderMemo acquire() {
+    final var memo = CURRENT.get();
+    if (memo.inUse) {
+      return new PlaceholderMemo();
+    }
+    memo.inUse = true;
+    return memo;
+  }
+
+  String resolve(@NonNullDecl PlaceholderProvider provider, PlaceholderContext context) {
+    if (!provider.isCacheable()) {
+      return provider.resolve(context);
+    }
+
+    for (int i = 0; i < size; i++) {
+      if (providers[i] == provider) {
+        return values[i];
+      }
+    }
+
+    final var value = provider.resolve(context);
+    if (size == providers.length) {
+      providers = Arrays.copyOf(providers, size * 2);
+      values = Arrays.copyOf(values, size * 2);
+    }
+    providers[size] = provider;
+    values[size] = value;
+    size++;
+    return value;
+  }
+
+  /** Returns the pending value of an async provider, starting the lookup on first use. */
+  CompletableFuture<String> resolveAsync(
+      @NonNullDecl AsyncPlaceholderProvider provider, PlaceholderContext context) {
+    if (!provider.isCacheable()) {
+      return PlaceholderTemplate.startAsync(provider, context);
+    }
+
+    for (int i = 0; i < asyncSize; i++) {
+      if (asyncProviders[i] == provider) {
+        return asyncValues[i];
+      }
+    }
+
+    final var value = PlaceholderTemplate.startAsync(provider, context);
+    if (asyncSize == asyncProviders.length) {
+      asyncProviders = Arrays.copyOf(asyncProviders, asyncSize * 2);
+      asyncValues = Arrays.copyOf(asyncValues, asyncSize * 2);
+    }
+    asyncProviders[asyncSize] = provider;
+    asyncValues[asyncSize] = value;
+    asyncSize++;
+    return value;
+  }
+
+  /** Forgets all remembered results and returns the memo to its thread. */
+  @Override
+  public void close() {
+    Arrays.fill(providers, 0, size, null);
+    Arrays.fill(values, 0, size, null);
+    size = 0;
+    Arrays.fill(asyncProviders, 0, asyncSize, null);
+    Arrays.fill(asyncValues, 0, asyncSize, null);
+    asyncSize = 0;
+    inUse = false;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static CompletableFuture<String>[] newFutureArray(int length) {
+    return (CompletableFuture<String>[]) new CompletableFuture<?>[length];
+  }
+}
@@ -1,7 +1,111 @@
 package studio.hiwire.adminportals.placeholder;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
 @FunctionalInterface
 public interface PlaceholderProvider {
 
   String resolve(PlaceholderContext context);
+
+  /**
+   * Appends the resolved value to {@code target}. Adapts {@link #resolve(PlaceholderContext)} by
+   * default, see {@link AppendingPlaceholderProvider} for providers that append directly.
+   */
+  default void appendTo(@NonNullDecl StringBuilder target, PlaceholderContext context) {
+    target.append(resolve(context));
+  }
+
+  /** How long resolved values stay valid, {@link PlaceholderScope#Activation} by default. */
+  default PlaceholderScope getScope() {
+    return PlaceholderScope.Activation;
+  }
+
+  /**
+   * Maximum age of a cached value for the {@link PlaceholderScope#Server}, {@link
+   * PlaceholderScope#World} and {@link PlaceholderScope#Player} scopes. {@link Duration#ZERO}
+   * (the default) keeps values until the provider is unregistered.
+   */
+  default Duration getTtl() {
+    return Duration.ZERO;
+  }
+
+  /**
+   * Whether the result may be reused for other commands of the same portal activation. Providers
+   * returning a different value on every call (e.g. random numbers) should use {@link
+   * #uncached(PlaceholderProvider)}.
+   */
+  default boolean isCacheable() {
+    return getScope() != PlaceholderScope.Uncached;
+  }
+
+  /** Wraps a provider so it is resolved again for every occurrence in every command. */
+  static PlaceholderProvider uncached(@NonNullDecl PlaceholderProvider provider) {
+    return scoped(PlaceholderScope.Uncached, provider);
+  }
+
+  /** Wraps a provider whose values are cached for the given scope until it is unregistered. */
+  static PlaceholderProvider scoped(
+      @NonNullDecl PlaceholderScope scope, @NonNullDecl PlaceholderProvider provider) {
+    return scoped(scope, Duration.ZERO, provider);
+  }
+
+  /** Wraps a provider whose values are cached for the given scope for at most {@code ttl}. */
+  static PlaceholderProvider scoped(
+      @NonNullDecl PlaceholderScope scope,
+      @NonNullDecl Duration ttl,
+      @NonNullDecl PlaceholderProvider provider) {
+    return new PlaceholderProvider() {
+      @Override
+      public String resolve(PlaceholderContext context) {
+        return provider.resolve(context);
+      }
+
+      @Override
+      public PlaceholderScope getScope() {
+        return scope;
+      }
+
+      @Override
+      public Duration getTtl() {
+        return ttl;
+      }
+    };
+  }
+
+  /** A provider that always returns {@code value}, folded into templates when they are compiled. */
+  static PlaceholderProvider constant(@NonNullDecl String value) {
+    return scoped(PlaceholderScope.Constant, context -> value);
+  }
+
+  /**
+   * Creates an {@link AsyncPlaceholderProvider}.
+   *
+   * @param deadline maximum time to wait for a value
+   * @param fallback value used on failure or when the deadline passes
+   * @param lookup starts the lookup, called on the world thread
+   */
+  static AsyncPlaceholderProvider async(
+      @NonNullDecl Duration deadline,
+      @NonNullDecl String fallback,
+      @NonNullDecl Function<PlaceholderContext, CompletableFuture<String>> lookup) {
+    return new AsyncPlaceholderProvider() {
+      @Override
+      public CompletableFuture<String> resolveAsync(PlaceholderContext context) {
+        return lookup.apply(context);
+      }
+
+      @Override
+      public Duration getDeadline() {
+        return deadline;
+      }
+
+      @Override
+      public String getFallback() {
+        return fallback;
+      }
+    };
+  }
 }
@@ -0,0 +1,24 @@
+package studio.hiwire.adminportals.placeholder;
+
+/**
+ * How long the value of a {@link PlaceholderProvider} stays valid. Values of the {@link #Server},
+ * {@link #World} and {@link #Player} scopes are cached by the {@link PlaceholderManager} until the
+ * provider's TTL expires or, without a TTL, until the provider is unregistered.
+ */
+public enum PlaceholderScope {
+  /** Resolved for every occurrence. */
+  Uncached,
+  /** Resolved once per portal activation and shared by all of its commands. */
+  Activation,
+  /** Cached per player, keyed by the player's UUID. */
+  Player,
+  /** Cached per world, keyed by the world name. */
+  World,
+  /** Cached once for the whole server. */
+  Server,
+  /**
+   * Never changes. Resolved once without a context (the context passed is {@code null}) and folded
+   * into compiled templates as literal text.
+   */
+  Constant
+}
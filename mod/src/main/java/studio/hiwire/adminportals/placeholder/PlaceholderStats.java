@@ -0,0 +1,61 @@
+package studio.hiwire.adminportals.placeholder;
+
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+import studio.hiwire.adminportals.util.LatencyHistogram;
+
+/**
+ * Resolve latency of one registered placeholder. Recorded for every call of the provider itself,
+ * values served from a scope cache or an activation's memo are not counted. For async providers the
+ * time until the returned future completes is recorded, or the deadline if the lookup timed out.
+ */
+public final class PlaceholderStats {
+
+  @Getter private final String name;
+
+  /** The plugin that registered the placeholder, as far as it could be determined. */
+  @Getter private final String owner;
+
+  private final LatencyHistogram histogram = new LatencyHistogram();
+  private final LongAdder timeouts = new LongAdder();
+
+  PlaceholderStats(String name, String owner) {
+    this.name = name;
+    this.owner = owner;
+  }
+
+  void record(long nanos) {
+    histogram.record(nanos);
+  }
+
+  // Counted as a call that took the whole deadline
+  void recordTimeout(long deadlineNanos) {
+    histogram.record(deadlineNanos);
+    timeouts.increment();
+  }
+
+  public long getCount() {
+    return histogram.getCount();
+  }
+
+  /** Returns the number of async lookups that ran past their deadline, included in the count. */
+  public long getTimeouts() {
+    return timeouts.sum();
+  }
+
+  /**
+   * Returns the resolve time in nanoseconds below which {@code percentile} percent of calls fell.
+   */
+  public long getPercentileNanos(double percentile) {
+    return histogram.getValueAtPercentile(percentile);
+  }
+
+  public long getMaxNanos() {
+    return histogram.getMax();
+  }
+
+  public void reset() {
+    histogram.reset();
+    timeouts.reset();
+  }
+}
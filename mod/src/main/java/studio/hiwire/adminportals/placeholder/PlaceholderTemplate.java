@@ -0,0 +1,209 @@
+package studio.hiwire.adminportals.placeholder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * A command string compiled into alternating literal and placeholder segments. Provider references
+ * are resolved once when the template is compiled, so rendering does not need to run the
+ * placeholder regex or look up providers by name.
+ *
+ * <p>Templates are immutable. A template compiled against an older registry state is detected with
+ * {@link PlaceholderManager#isCurrent(PlaceholderTemplate)} and should be recompiled.
+ */
+public final class PlaceholderTemplate {
+
+  // Buffers above this size are not kept, so one huge command does not pin memory per thread
+  private static final int MAX_RETAINED_BUFFER_CAPACITY = 4096;
+  private static final ThreadLocal<StringBuilder> BUFFER =
+      ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+  private final String source;
+  // literals.length == providers.length + 1, rendering alternates literal, provider, literal, ...
+  private final String[] literals;
+  private final PlaceholderProvider[] providers;
+  // Stats of the appending providers, which are timed here; null for all other providers
+  private final PlaceholderStats[] appendingStats;
+  // Filter chain of each placeholder, null if it has none
+  private final PlaceholderFilter[] filters;
+  private final int registryVersion;
+  private final boolean async;
+
+  PlaceholderTemplate(
+      String source,
+      String[] literals,
+      PlaceholderProvider[] providers,
+      PlaceholderStats[] appendingStats,
+      PlaceholderFilter[] filters,
+      int registryVersion) {
+    this.source = source;
+    this.literals = literals;
+    this.providers = providers;
+    this.appendingStats = appendingStats;
+    this.filters = filters;
+    this.registryVersion = registryVersion;
+
+    var hasAsyncProvider = false;
+    for (PlaceholderProvider provider : providers) {
+      hasAsyncProvider |= provider instanceof AsyncPlaceholderProvider;
+    }
+    this.async = hasAsyncProvider;
+  }
+
+  public String getSource() {
+    return source;
+  }
+
+  /** Returns {@code true} if the template contains no resolvable placeholders. */
+  public boolean isLiteral() {
+    return providers.length == 0;
+  }
+
+  /**
+   * Returns {@code true} if the template uses an {@link AsyncPlaceholderProvider} and should be
+   * rendered with {@link #renderAsync(PlaceholderContext, PlaceholderMemo)}.
+   */
+  public boolean isAsync() {
+    return async;
+  }
+
+  int getRegistryVersion() {
+    return registryVersion;
+  }
+
+  /**
+   * Renders the template. Literal templates return their precomputed text without touching the
+   * context, so callers may pass {@code null} when {@link #isLiteral()} is {@code true}. Otherwise
+   * the only allocations are the resulting string and the values of providers that return strings.
+   */
+  public String render(PlaceholderContext context) {
+    return render(context, null);
+  }
+
+  /**
+   * Renders the template, reusing provider results remembered in {@code memo} from earlier
+   * renders of the same activation.
+   */
+  public String render(PlaceholderContext context, @NullableDecl PlaceholderMemo memo) {
+    if (providers.length == 0) {
+      return literals[0];
+    }
+
+    StringBuilder result = BUFFER.get();
+    final var shared = result.length() == 0;
+    if (!shared) {
+      // A provider is rendering another template while this thread's buffer is in use
+      result = new StringBuilder(source.length() + 16 * providers.length);
+    }
+
+    try {
+      for (int i = 0; i < providers.length; i++) {
+        result.append(literals[i]);
+        final var provider = providers[i];
+        if (filters[i] != null) {
+          result.append(filters[i].applyNullable(resolve(i, context, memo)));
+        } else if (memo != null
+            && provider.isCacheable()
+            && !(provider instanceof AppendingPlaceholderProvider)) {
+          result.append(memo.resolve(provider, context));
+        } else if (appendingStats[i] != null) {
+          final var start = System.nanoTime();
+          provider.appendTo(result, context);
+          appendingStats[i].record(System.nanoTime() - start);
+        } else {
+          provider.appendTo(result, context);
+        }
+      }
+      result.append(literals[providers.length]);
+      return result.toString();
+    } finally {
+      if (shared) {
+        result.setLength(0);
+        if (result.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+          BUFFER.remove();
+        }
+      }
+    }
+  }
+
+  /**
+   * Renders a template that may contain async placeholders. Synchronous providers are resolved
+   * immediately, while the context is valid; async lookups are started and the result completes
+   * once all of them completed or fell back. The returned future never completes exceptionally.
+   */
+  public CompletableFuture<String> renderAsync(
+      PlaceholderContext context, @NullableDecl PlaceholderMemo memo) {
+    if (!async) {
+      return CompletableFuture.completedFuture(render(context, memo));
+    }
+
+    final var values = new String[providers.length];
+    @SuppressWarnings("unchecked")
+    final var lookups = (CompletableFuture<String>[]) new CompletableFuture<?>[providers.length];
+    for (int i = 0; i < providers.length; i++) {
+      final var provider = providers[i];
+      if (provider instanceof AsyncPlaceholderProvider asyncProvider) {
+        final var lookup =
+            memo != null
+                ? memo.resolveAsync(asyncProvider, context)
+                : startAsync(asyncProvider, context);
+        final var filter = filters[i];
+        lookups[i] = filter != null ? lookup.thenApply(filter::applyNullable) : lookup;
+      } else {
+        final var value = resolve(i, context, memo);
+        values[i] = filters[i] != null ? filters[i].applyNullable(value) : value;
+        lookups[i] = CompletableFuture.completedFuture(values[i]);
+      }
+    }
+
+    return CompletableFuture.allOf(lookups)
+        .thenApply(
+            ignored -> {
+              final var result = new StringBuilder(source.length() + 16 * providers.length);
+              for (int i = 0; i < providers.length; i++) {
+                result.append(literals[i]).append(lookups[i].join());
+              }
+              return result.append(literals[providers.length]).toString();
+            });
+  }
+
+  /** Resolves the value of a placeholder as a string, for filters and async rendering. */
+  private String resolve(
+      int index, PlaceholderContext context, @NullableDecl PlaceholderMemo memo) {
+    final var provider = providers[index];
+    if (memo != null && provider.isCacheable()) {
+      return memo.resolve(provider, context);
+    }
+    if (appendingStats[index] != null) {
+      final var start = System.nanoTime();
+      final var value = provider.resolve(context);
+      appendingStats[index].record(System.nanoTime() - start);
+      return value;
+    }
+    return provider.resolve(context);
+  }
+
+  /**
+   * Starts an async lookup with the provider's deadline and fallback applied. The returned future
+   * always completes normally.
+   */
+  static CompletableFuture<String> startAsync(
+      AsyncPlaceholderProvider provider, PlaceholderContext context) {
+    final var fallback = provider.getFallback();
+    final CompletableFuture<String> lookup;
+    try {
+      lookup = provider.resolveAsync(context);
+    } catch (Exception e) {
+      return CompletableFuture.completedFuture(fallback);
+    }
+    if (lookup == null) {
+      return CompletableFuture.completedFuture(fallback);
+    }
+
+    // Work on a dependent future, so the deadline does not complete the provider's own future
+    return lookup
+        .handle((value, throwable) -> throwable == null && value != null ? value : fallback)
+        .completeOnTimeout(fallback, provider.getDeadline().toNanos(), TimeUnit.NANOSECONDS);
+  }
+}
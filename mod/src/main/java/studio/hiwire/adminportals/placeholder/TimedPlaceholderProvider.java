@@ -0,0 +1,133 @@
+package studio.hiwire.adminportals.placeholder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * Records the resolve time of a registered provider into its {@link PlaceholderStats}. The wrapper
+ * implements the same provider interfaces as its delegate, so templates treat it the same way.
+ * Uncached {@link AppendingPlaceholderProvider}s are not wrapped, {@link PlaceholderTemplate}
+ * times them where it appends their value. Async lookups that run past their deadline are recorded
+ * as timed out when the deadline passes, as that is when their activation went on with the
+ * fallback.
+ */
+final class TimedPlaceholderProvider {
+
+  private TimedPlaceholderProvider() {}
+
+  static PlaceholderProvider wrap(
+      @NonNullDecl PlaceholderProvider provider, @NonNullDecl PlaceholderStats stats) {
+    if (provider instanceof AsyncPlaceholderProvider async) {
+      return new Async(async, stats);
+    }
+    if (provider instanceof AppendingPlaceholderProvider
+        && !CachingPlaceholderProvider.isCachedScope(provider.getScope())) {
+      // Timed by the template that appends it, without an extra call level on the render path
+      return provider;
+    }
+    return new Resolving(provider, stats);
+  }
+
+  private abstract static class Delegating implements PlaceholderProvider {
+
+    final PlaceholderProvider delegate;
+    final PlaceholderStats stats;
+
+    Delegating(PlaceholderProvider delegate, PlaceholderStats stats) {
+      this.delegate = delegate;
+      this.stats = stats;
+    }
+
+    @Override
+    public PlaceholderScope getScope() {
+      return delegate.getScope();
+    }
+
+    @Override
+    public Duration getTtl() {
+      return delegate.getTtl();
+    }
+
+    @Override
+    public boolean isCacheable() {
+      return delegate.isCacheable();
+    }
+  }
+
+  private static final class Resolving extends Delegating {
+
+    Resolving(PlaceholderProvider delegate, PlaceholderStats stats) {
+      super(delegate, stats);
+    }
+
+    @Override
+    public String resolve(PlaceholderContext context) {
+      final var start = System.nanoTime();
+      try {
+        return delegate.resolve(context);
+      } finally {
+        stats.record(System.nanoTime() - start);
+      }
+    }
+  }
+
+  private static final class Async extends Delegating implements AsyncPlaceholderProvider {
+
+    // Elapsed times are never negative
+    private static final long TIMED_OUT = -1;
+
+    private final AsyncPlaceholderProvider async;
+
+    Async(AsyncPlaceholderProvider delegate, PlaceholderStats stats) {
+      super(delegate, stats);
+      this.async = delegate;
+    }
+
+    @Override
+    public CompletableFuture<String> resolveAsync(PlaceholderContext context) {
+      final var start = System.nanoTime();
+      final CompletableFuture<String> lookup;
+      try {
+        lookup = async.resolveAsync(context);
+      } catch (RuntimeException e) {
+        stats.record(System.nanoTime() - start);
+        throw e;
+      }
+      if (lookup == null) {
+        stats.record(System.nanoTime() - start);
+        return null;
+      }
+      final var deadline = async.getDeadline().toNanos();
+      // Whichever comes first, the completion or the deadline, is recorded
+      lookup
+          .handle((value, throwable) -> System.nanoTime() - start)
+          .completeOnTimeout(TIMED_OUT, deadline, TimeUnit.NANOSECONDS)
+          .thenAccept(
+              nanos -> {
+                if (nanos < 0) {
+                  stats.recordTimeout(deadline);
+                } else {
+                  stats.record(nanos);
+                }
+              });
+      return lookup;
+    }
+
+    @Override
+    public Duration getDeadline() {
+      return async.getDeadline();
+    }
+
+    @Override
+    public String getFallback() {
+      return async.getFallback();
+    }
+
+    @Override
+    public String resolve(PlaceholderContext context) {
+      return AsyncPlaceholderProvider.super.resolve(context);
+    }
+  }
+}
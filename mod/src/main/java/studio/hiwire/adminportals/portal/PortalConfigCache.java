@@ -0,0 +1,81 @@
+package studio.hiwire.adminportals.portal;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+import studio.hiwire.adminportals.AdminPortalsPlugin;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.placeholder.PlaceholderManager;
+
+/**
+ * Per-world cache of {@link ResolvedPortalConfig}s keyed by the portal's block entity. Only
+ * accessed from the world thread.
+ *
+ * <p>Entries are invalidated when the portal configuration is saved and when the block entity is
+ * removed, which includes chunk unloads (see {@link PortalConfigCacheSystem}). They are resolved
+ * again on access once the placeholder registry changed, so command templates stay current.
+ */
+public class PortalConfigCache implements Resource<ChunkStore> {
+
+  private final Object2ObjectOpenHashMap<Ref<ChunkStore>, ResolvedPortalConfig> configs =
+      new Object2ObjectOpenHashMap<>();
+
+  /**
+   * Returns the resolved configuration of the portal block entity, resolving and caching it on the
+   * first access.
+   *
+   * @return the resolved configuration, or {@code null} if the portal is not configured
+   */
+  @NullableDecl
+  public ResolvedPortalConfig get(
+      @NonNullDecl Ref<ChunkStore> blockEntityRef,
+      @NonNullDecl Store<ChunkStore> chunkStore,
+      @NonNullDecl PlaceholderManager placeholderManager) {
+    ResolvedPortalConfig config = configs.get(blockEntityRef);
+    if (config != null && config.isCurrent(placeholderManager)) {
+      return config;
+    }
+
+    final var component =
+        chunkStore.getComponent(blockEntityRef, PortalConfigComponent.getComponentType());
+    if (component == null) {
+      return null;
+    }
+
+    config = ResolvedPortalConfig.of(component, placeholderManager);
+    configs.put(blockEntityRef, config);
+    return config;
+  }
+
+  public void invalidate(@NonNullDecl Ref<ChunkStore> blockEntityRef) {
+    configs.remove(blockEntityRef);
+  }
+
+  /** Resolves the sound event indices of all cached configurations again. */
+  public void resolveSoundEvents() {
+    for (final var config : configs.values()) {
+      config.resolveSoundEvent();
+    }
+  }
+
+  public int size() {
+    return configs.size();
+  }
+
+  @NullableDecl
+  @Override
+  @SuppressWarnings("CloneDoesntCallSuperClone")
+  public Resource<ChunkStore> clone() {
+    // Cached entries are derived state and are rebuilt on demand
+    return new PortalConfigCache();
+  }
+
+  public static ResourceType<ChunkStore, PortalConfigCache> getResourceType() {
+    return AdminPortalsPlugin.get().getPortalConfigCacheResourceType();
+  }
+}
@@ -0,0 +1,247 @@
+package studio.hiwire.adminportals.portal;
+
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+import studio.hiwire.adminportals.AdminPortalsPlugin;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+/**
+ * Per-world player cooldowns of portals with a {@link PortalConfigComponent.Cooldown}. Only
+ * accessed from the world thread.
+ *
+ * <p>Players and portals are numbered while they have cooldowns, and each cooldown is a single
+ * {@code long} expiry time keyed by the two numbers. Global cooldowns use a portal number that is
+ * shared by all portals. Expired cooldowns are purged with a hashed timing wheel: each cooldown's
+ * key is stored once in the slot of its expiry, and every access only visits the slots that came
+ * due since the last one. Keys whose expiry is more than one turn of the wheel away are moved on
+ * when their slot is visited. When the last cooldown of a player or portal is purged, its number
+ * is released and reused, so the numbering does not grow with player turnover.
+ */
+public class PortalCooldowns implements Resource<EntityStore> {
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+  private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+  // Power of two, one turn of the wheel covers 64 seconds
+  private static final int WHEEL_SIZE = 256;
+  private static final int GLOBAL_PORTAL_ID = 0;
+
+  private final LongSupplier clock;
+  private final long origin;
+  private final Object2IntOpenHashMap<UUID> playerIds = new Object2IntOpenHashMap<>();
+  // Player number -> player and number of cooldowns, released numbers are reused
+  private final ObjectArrayList<UUID> players = new ObjectArrayList<>();
+  private final IntArrayList playerCooldowns = new IntArrayList();
+  private final IntArrayList freePlayerIds = new IntArrayList();
+  // Packed portal position -> portal number
+  private final Long2IntOpenHashMap portalIds = new Long2IntOpenHashMap();
+  // Portal number -> packed portal position and number of cooldowns, released numbers are reused
+  private final LongArrayList portals = new LongArrayList();
+  private final IntArrayList portalCooldowns = new IntArrayList();
+  private final IntArrayList freePortalIds = new IntArrayList();
+  // Player and portal number -> time at which the cooldown ends
+  private final Long2LongOpenHashMap expiries = new Long2LongOpenHashMap();
+  // Keys of the cooldowns ending in each slot's tick, or in a later turn of the wheel
+  private final LongArrayList[] wheel = new LongArrayList[WHEEL_SIZE];
+  // Swapped with the slot that is visited, so keys can be moved into its next turn
+  private LongArrayList spare = new LongArrayList();
+  private long visitedTick;
+
+  public PortalCooldowns() {
+    this(System::nanoTime);
+  }
+
+  PortalCooldowns(@NonNullDecl LongSupplier clock) {
+    this.clock = clock;
+    this.origin = clock.getAsLong();
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      wheel[i] = new LongArrayList();
+    }
+    playerIds.defaultReturnValue(-1);
+    portalIds.defaultReturnValue(-1);
+    // The global portal number is never released
+    portals.add(0L);
+    portalCooldowns.add(0);
+  }
+
+  /**
+   * Returns the time until the player may use the portal again.
+   *
+   * @param positionKey the portal block position, packed with {@link BlockPositionKey}
+   * @return the remaining cooldown in nanoseconds, or {@code 0} if the portal may be used
+   */
+  public long remainingNanos(
+      @NonNullDecl UUID player,
+      long positionKey,
+      @NonNullDecl PortalConfigComponent.Cooldown cooldown) {
+    final var now = clock.getAsLong();
+    advance(now);
+
+    final var playerId = playerIds.getInt(player);
+    final var portalId = cooldown.isGlobal() ? GLOBAL_PORTAL_ID : portalIds.get(positionKey);
+    if (playerId < 0 || portalId < 0) {
+      return 0;
+    }
+    final var key = key(playerId, portalId);
+    return expiries.containsKey(key) ? Math.max(0, expiries.get(key) - now) : 0;
+  }
+
+  /**
+   * Starts the player's cooldown of the portal. Has no effect for cooldowns of zero seconds or
+   * less.
+   *
+   * @param positionKey the portal block position, packed with {@link BlockPositionKey}
+   */
+  public void start(
+      @NonNullDecl UUID player,
+      long positionKey,
+      @NonNullDecl PortalConfigComponent.Cooldown cooldown) {
+    final var duration = (long) (cooldown.getSeconds() * NANOS_PER_SECOND);
+    if (duration <= 0) {
+      return;
+    }
+    final var now = clock.getAsLong();
+    advance(now);
+
+    final var playerId = playerId(player);
+    final var portalId = cooldown.isGlobal() ? GLOBAL_PORTAL_ID : portalId(positionKey);
+    final var key = key(playerId, portalId);
+    final var expiry = now + duration;
+    // A key that is still in the map keeps its slot, the visit moves it to the new expiry
+    if (!expiries.containsKey(key)) {
+      schedule(key, expiry);
+      playerCooldowns.set(playerId, playerCooldowns.getInt(playerId) + 1);
+      portalCooldowns.set(portalId, portalCooldowns.getInt(portalId) + 1);
+    }
+    expiries.put(key, expiry);
+  }
+
+  int size() {
+    return expiries.size();
+  }
+
+  int playerCount() {
+    return playerIds.size();
+  }
+
+  int portalCount() {
+    return portalIds.size();
+  }
+
+  private int playerId(UUID player) {
+    var id = playerIds.getInt(player);
+    if (id < 0) {
+      if (freePlayerIds.isEmpty()) {
+        id = players.size();
+        players.add(player);
+        playerCooldowns.add(0);
+      } else {
+        id = freePlayerIds.popInt();
+        players.set(id, player);
+      }
+      playerIds.put(player, id);
+    }
+    return id;
+  }
+
+  private int portalId(long positionKey) {
+    var id = portalIds.get(positionKey);
+    if (id < 0) {
+      if (freePortalIds.isEmpty()) {
+        id = portals.size();
+        portals.add(positionKey);
+        portalCooldowns.add(0);
+      } else {
+        id = freePortalIds.popInt();
+        portals.set(id, positionKey);
+      }
+      portalIds.put(positionKey, id);
+    }
+    return id;
+  }
+
+  // Releases the player and portal numbers of a purged cooldown once they have no other ones
+  private void release(long key) {
+    final var playerId = (int) (key >>> Integer.SIZE);
+    final var playerLeft = playerCooldowns.getInt(playerId) - 1;
+    playerCooldowns.set(playerId, playerLeft);
+    if (playerLeft == 0) {
+      playerIds.removeInt(players.set(playerId, null));
+      freePlayerIds.add(playerId);
+    }
+
+    final var portalId = (int) key;
+    if (portalId == GLOBAL_PORTAL_ID) {
+      return;
+    }
+    final var portalLeft = portalCooldowns.getInt(portalId) - 1;
+    portalCooldowns.set(portalId, portalLeft);
+    if (portalLeft == 0) {
+      portalIds.remove(portals.getLong(portalId));
+      freePortalIds.add(portalId);
+    }
+  }
+
+  private void schedule(long key, long expiry) {
+    // Rounded up, so the cooldown has ended once its tick is visited
+    final var tick = Math.ceilDiv(expiry - origin, TICK_NANOS);
+    wheel[(int) (tick & (WHEEL_SIZE - 1))].add(key);
+  }
+
+  private void advance(long now) {
+    final var tick = (now - origin) / TICK_NANOS;
+    if (tick <= visitedTick) {
+      return;
+    }
+    // After a full turn without accesses, every slot is visited once
+    for (long t = Math.max(visitedTick + 1, tick - WHEEL_SIZE + 1); t <= tick; t++) {
+      visit((int) (t & (WHEEL_SIZE - 1)), now);
+    }
+    visitedTick = tick;
+  }
+
+  private void visit(int slot, long now) {
+    final var keys = wheel[slot];
+    wheel[slot] = spare;
+    spare = keys;
+    for (int i = 0; i < keys.size(); i++) {
+      final var key = keys.getLong(i);
+      final var expiry = expiries.get(key);
+      if (expiry - now <= 0) {
+        expiries.remove(key);
+        release(key);
+      } else {
+        schedule(key, expiry);
+      }
+    }
+    keys.clear();
+  }
+
+  private static long key(int playerId, int portalId) {
+    return ((long) playerId << Integer.SIZE) | (portalId & 0xFFFFFFFFL);
+  }
+
+  @NullableDecl
+  @Override
+  @SuppressWarnings("CloneDoesntCallSuperClone")
+  public Resource<EntityStore> clone() {
+    // Cooldowns are transient runtime state
+    return new PortalCooldowns();
+  }
+
+  public static ResourceType<EntityStore, PortalCooldowns> getResourceType() {
+    return AdminPortalsPlugin.get().getPortalCooldownsResourceType();
+  }
+}
@@ -0,0 +1,15 @@
+package studio.hiwire.adminportals.portal;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/** Loads destination chunks of portals that players are approaching. */
+public class PortalDestinationPrewarmSystem extends TickingSystem<ChunkStore> {
+
+  @Override
+  public void tick(float dt, int systemIndex, @NonNullDecl Store<ChunkStore> store) {
+    store.getResource(PortalDestinations.getResourceType()).tick(store);
+  }
+}
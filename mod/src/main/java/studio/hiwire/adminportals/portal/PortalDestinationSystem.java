@@ -0,0 +1,40 @@
+package studio.hiwire.adminportals.portal;
+
+import com.hypixel.hytale.component.AddReason;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.RemoveReason;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.RefSystem;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+
+/** Keeps {@link PortalDestinations} in sync as portal block entities load and unload. */
+public class PortalDestinationSystem extends RefSystem<ChunkStore> {
+
+  @NonNullDecl
+  @Override
+  public Query<ChunkStore> getQuery() {
+    return PortalConfigComponent.getComponentType();
+  }
+
+  @Override
+  public void onEntityAdded(
+      @NonNullDecl Ref<ChunkStore> ref,
+      @NonNullDecl AddReason reason,
+      @NonNullDecl Store<ChunkStore> store,
+      @NonNullDecl CommandBuffer<ChunkStore> commandBuffer) {
+    store.getResource(PortalDestinations.getResourceType()).update(ref, store);
+  }
+
+  @Override
+  public void onEntityRemove(
+      @NonNullDecl Ref<ChunkStore> ref,
+      @NonNullDecl RemoveReason reason,
+      @NonNullDecl Store<ChunkStore> store,
+      @NonNullDecl CommandBuffer<ChunkStore> commandBuffer) {
+    store.getResource(PortalDestinations.getResourceType()).remove(ref);
+  }
+}
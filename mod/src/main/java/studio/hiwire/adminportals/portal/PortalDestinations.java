@@ -0,0 +1,214 @@
+package studio.hiwire.adminportals.portal;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+import studio.hiwire.adminportals.AdminPortalsPlugin;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.util.BlockEntities;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+/**
+ * Per-world registry of portals that declare a destination, used to load the destination chunks
+ * before a player reaches the portal. Only accessed from the world thread.
+ *
+ * <p>Every {@link #SCAN_INTERVAL_TICKS} ticks, each player within the configured radius of a
+ * portal, as found through the {@link PortalIndex}, triggers an asynchronous load of the chunks
+ * around that portal's destination. Chunks that are already in memory are skipped, so a crowd
+ * around a portal keeps its destination warm without issuing new loads.
+ */
+public class PortalDestinations implements Resource<ChunkStore> {
+
+  public static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+  private static final int SCAN_INTERVAL_TICKS = 20;
+  // Minimum time between two load requests for the same portal
+  private static final long REQUEST_INTERVAL_TICKS = 100;
+
+  // Packed portal position -> destination
+  private final Long2ObjectOpenHashMap<PortalConfigComponent.TeleportDestination> destinations =
+      new Long2ObjectOpenHashMap<>();
+  private final Object2LongOpenHashMap<Ref<ChunkStore>> positions = new Object2LongOpenHashMap<>();
+  // Packed portal position -> tick of the last load request
+  private final Long2LongOpenHashMap lastRequests = new Long2LongOpenHashMap();
+  private long currentTick;
+
+  /** Reads the portal's current configuration and position and (re-)registers its destination. */
+  public void update(
+      @NonNullDecl Ref<ChunkStore> blockEntityRef, @NonNullDecl Store<ChunkStore> chunkStore) {
+    remove(blockEntityRef);
+
+    final var component =
+        chunkStore.getComponent(blockEntityRef, PortalConfigComponent.getComponentType());
+    if (component == null || component.getTeleportDestination() == null) {
+      return;
+    }
+
+    final var position = BlockEntities.getPosition(chunkStore, blockEntityRef);
+    if (position == null) {
+      return;
+    }
+
+    final var positionKey = BlockPositionKey.pack(position.x, position.y, position.z);
+    positions.put(blockEntityRef, positionKey);
+    destinations.put(positionKey, component.getTeleportDestination().clone());
+  }
+
+  public void remove(@NonNullDecl Ref<ChunkStore> blockEntityRef) {
+    if (!positions.containsKey(blockEntityRef)) {
+      return;
+    }
+    final var positionKey = positions.removeLong(blockEntityRef);
+    destinations.remove(positionKey);
+    lastRequests.remove(positionKey);
+  }
+
+  void tick(@NonNullDecl Store<ChunkStore> chunkStore) {
+    currentTick++;
+    if (destinations.isEmpty() || currentTick % SCAN_INTERVAL_TICKS != 0) {
+      return;
+    }
+
+    final var world = chunkStore.getExternalData().getWorld();
+    final var index = chunkStore.getResource(PortalIndex.getResourceType());
+    final var config = AdminPortalsPlugin.get().getPluginConfig();
+    final var radius = config.getDestinationPrewarmRadius();
+    final var chunkRadius = config.getDestinationPrewarmChunkRadius();
+    final var entityStore = world.getEntityStore().getStore();
+
+    for (final var playerRef : world.getPlayerRefs()) {
+      final var ref = playerRef.getReference();
+      if (ref == null || !ref.isValid()) {
+        continue;
+      }
+      final var transform = entityStore.getComponent(ref, TransformComponent.getComponentType());
+      if (transform == null) {
+        continue;
+      }
+      requestNearby(
+          index,
+          transform.getPosition(),
+          radius,
+          destination -> prewarm(world, destination, chunkRadius));
+    }
+  }
+
+  /**
+   * Passes the destinations of the portals within {@code radius} blocks of the position to {@code
+   * loader}, skipping portals whose destination was requested recently.
+   */
+  void requestNearby(
+      @NonNullDecl PortalIndex index,
+      @NonNullDecl Vector3d position,
+      double radius,
+      @NonNullDecl Consumer<PortalConfigComponent.TeleportDestination> loader) {
+    index.forEachWithin(
+        position.getX(),
+        position.getY(),
+        position.getZ(),
+        radius,
+        positionKey -> {
+          final var destination = destinations.get(positionKey);
+          if (destination == null) {
+            return;
+          }
+
+          final var lastRequest = lastRequests.get(positionKey);
+          if (lastRequests.containsKey(positionKey)
+              && currentTick - lastRequest < REQUEST_INTERVAL_TICKS) {
+            return;
+          }
+          lastRequests.put(positionKey, currentTick);
+          loader.accept(destination);
+        });
+  }
+
+  @NullableDecl
+  PortalConfigComponent.TeleportDestination get(long positionKey) {
+    return destinations.get(positionKey);
+  }
+
+  /** Visits the coordinates of the chunks within {@code chunkRadius} chunks of the destination. */
+  static void forEachChunk(
+      @NonNullDecl PortalConfigComponent.TeleportDestination destination,
+      int chunkRadius,
+      @NonNullDecl ChunkConsumer consumer) {
+    final var centerX = ChunkUtil.chunkCoordinate((int) Math.floor(destination.getX()));
+    final var centerZ = ChunkUtil.chunkCoordinate((int) Math.floor(destination.getZ()));
+    for (int x = centerX - chunkRadius; x <= centerX + chunkRadius; x++) {
+      for (int z = centerZ - chunkRadius; z <= centerZ + chunkRadius; z++) {
+        consumer.accept(x, z);
+      }
+    }
+  }
+
+  private static void prewarm(
+      World world, PortalConfigComponent.TeleportDestination destination, int chunkRadius) {
+    final var targetWorld = resolveWorld(world, destination.getWorld());
+    if (targetWorld == null) {
+      return;
+    }
+
+    // Chunk loading has to be requested on the destination world's thread
+    targetWorld.execute(
+        () ->
+            forEachChunk(
+                destination,
+                chunkRadius,
+                (chunkX, chunkZ) -> {
+                  final var chunkIndex = ChunkUtil.indexChunk(chunkX, chunkZ);
+                  if (targetWorld.getChunkIfInMemory(chunkIndex) != null) {
+                    return;
+                  }
+                  targetWorld
+                      .getChunkAsync(chunkIndex)
+                      .exceptionally(
+                          throwable -> {
+                            LOGGER.at(Level.WARNING).withCause(throwable).log(
+                                "Failed to prewarm destination chunk %d, %d in world %s",
+                                chunkX, chunkZ, targetWorld.getName());
+                            return null;
+                          });
+                }));
+  }
+
+  @NullableDecl
+  private static World resolveWorld(World world, @NullableDecl String worldName) {
+    if (worldName == null || worldName.isBlank() || worldName.equals(world.getName())) {
+      return world;
+    }
+    return Universe.get().getWorld(worldName);
+  }
+
+  @NullableDecl
+  @Override
+  @SuppressWarnings("CloneDoesntCallSuperClone")
+  public Resource<ChunkStore> clone() {
+    // Rebuilt from the block entities as chunks load
+    return new PortalDestinations();
+  }
+
+  public static ResourceType<ChunkStore, PortalDestinations> getResourceType() {
+    return AdminPortalsPlugin.get().getPortalDestinationsResourceType();
+  }
+
+  @FunctionalInterface
+  interface ChunkConsumer {
+    void accept(int chunkX, int chunkZ);
+  }
+}
@@ -0,0 +1,158 @@
+package studio.hiwire.adminportals.portal;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongConsumer;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+import studio.hiwire.adminportals.AdminPortalsPlugin;
+import studio.hiwire.adminportals.util.BlockEntities;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+/**
+ * Per-world index of all loaded portal block entities, kept current by {@link PortalIndexSystem}.
+ * Only accessed from the world thread.
+ *
+ * <p>Portals are keyed by their position packed with {@link BlockPositionKey}. A coarse grid of
+ * {@value #CELL_SIZE}x{@value #CELL_SIZE} block columns answers range queries without visiting
+ * every portal of the world.
+ */
+public class PortalIndex implements Resource<ChunkStore> {
+
+  static final int CELL_SIZE = 32;
+  private static final int CELL_SHIFT = Integer.numberOfTrailingZeros(CELL_SIZE);
+
+  private final Long2ObjectOpenHashMap<Ref<ChunkStore>> portals = new Long2ObjectOpenHashMap<>();
+  private final Object2LongOpenHashMap<Ref<ChunkStore>> positions = new Object2LongOpenHashMap<>();
+  // Cell key -> packed positions of the portals in that cell
+  private final Long2ObjectOpenHashMap<LongOpenHashSet> cells = new Long2ObjectOpenHashMap<>();
+
+  /** Adds a portal block entity, resolving its position from the chunk it belongs to. */
+  public void add(
+      @NonNullDecl Ref<ChunkStore> blockEntityRef, @NonNullDecl Store<ChunkStore> store) {
+    final var position = BlockEntities.getPosition(store, blockEntityRef);
+    if (position != null) {
+      add(BlockPositionKey.pack(position.x, position.y, position.z), blockEntityRef);
+    }
+  }
+
+  void add(long positionKey, @NonNullDecl Ref<ChunkStore> blockEntityRef) {
+    remove(blockEntityRef);
+    final var previous = portals.put(positionKey, blockEntityRef);
+    if (previous != null) {
+      positions.removeLong(previous);
+    }
+    positions.put(blockEntityRef, positionKey);
+    cells
+        .computeIfAbsent(
+            cellKey(BlockPositionKey.x(positionKey), BlockPositionKey.z(positionKey)),
+            key -> new LongOpenHashSet())
+        .add(positionKey);
+  }
+
+  public void remove(@NonNullDecl Ref<ChunkStore> blockEntityRef) {
+    if (!positions.containsKey(blockEntityRef)) {
+      return;
+    }
+    final var positionKey = positions.removeLong(blockEntityRef);
+    portals.remove(positionKey);
+
+    final var cellKey = cellKey(BlockPositionKey.x(positionKey), BlockPositionKey.z(positionKey));
+    final var cell = cells.get(cellKey);
+    if (cell != null && cell.remove(positionKey) && cell.isEmpty()) {
+      cells.remove(cellKey);
+    }
+  }
+
+  /** Returns the portal block entity at the given packed position, or {@code null}. */
+  @NullableDecl
+  public Ref<ChunkStore> get(long positionKey) {
+    return portals.get(positionKey);
+  }
+
+  @NullableDecl
+  public Ref<ChunkStore> get(int x, int y, int z) {
+    return portals.get(BlockPositionKey.pack(x, y, z));
+  }
+
+  /**
+   * Returns the packed position of an indexed portal block entity, or {@link Long#MIN_VALUE} if it
+   * is not indexed.
+   */
+  public long getPosition(@NonNullDecl Ref<ChunkStore> blockEntityRef) {
+    return positions.containsKey(blockEntityRef)
+        ? positions.getLong(blockEntityRef)
+        : Long.MIN_VALUE;
+  }
+
+  public int size() {
+    return portals.size();
+  }
+
+  /** Visits the packed positions of all indexed portals. */
+  public void forEach(@NonNullDecl LongConsumer consumer) {
+    portals.keySet().forEach(consumer);
+  }
+
+  /**
+   * Visits the packed positions of all portals whose block center is within {@code radius} blocks
+   * of the given point.
+   */
+  public void forEachWithin(
+      double x, double y, double z, double radius, @NonNullDecl LongConsumer consumer) {
+    if (portals.isEmpty()) {
+      return;
+    }
+
+    final var radiusSquared = radius * radius;
+    final var minCellX = (int) Math.floor(x - radius) >> CELL_SHIFT;
+    final var maxCellX = (int) Math.floor(x + radius) >> CELL_SHIFT;
+    final var minCellZ = (int) Math.floor(z - radius) >> CELL_SHIFT;
+    final var maxCellZ = (int) Math.floor(z + radius) >> CELL_SHIFT;
+
+    for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+      for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+        final var cell = cells.get(packCell(cellX, cellZ));
+        if (cell == null) {
+          continue;
+        }
+        final var iterator = cell.iterator();
+        while (iterator.hasNext()) {
+          final var positionKey = iterator.nextLong();
+          final var dx = BlockPositionKey.x(positionKey) + 0.5 - x;
+          final var dy = BlockPositionKey.y(positionKey) + 0.5 - y;
+          final var dz = BlockPositionKey.z(positionKey) + 0.5 - z;
+          if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+            consumer.accept(positionKey);
+          }
+        }
+      }
+    }
+  }
+
+  private static long cellKey(int x, int z) {
+    return packCell(x >> CELL_SHIFT, z >> CELL_SHIFT);
+  }
+
+  private static long packCell(int cellX, int cellZ) {
+    return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+  }
+
+  @NullableDecl
+  @Override
+  @SuppressWarnings("CloneDoesntCallSuperClone")
+  public Resource<ChunkStore> clone() {
+    // Rebuilt from the block entities as chunks load
+    return new PortalIndex();
+  }
+
+  public static ResourceType<ChunkStore, PortalIndex> getResourceType() {
+    return AdminPortalsPlugin.get().getPortalIndexResourceType();
+  }
+}
@@ -0,0 +1,184 @@
+package studio.hiwire.adminportals.portal;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.shape.Box;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.modules.entity.component.BoundingBox;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+import studio.hiwire.adminportals.AdminPortalsPlugin;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+/**
+ * Per-world tracker of which portals each player is currently standing in. Only accessed from the
+ * world thread.
+ *
+ * <p>Collision activations are edge-triggered: a portal fires once when the player enters it and
+ * re-arms only after {@link PortalOccupancySystem} sees the player leave. Use activations always
+ * fire, except when the same portal was already activated by the same player in the current tick.
+ *
+ * <p>A player has left a portal once their bounding box no longer touches the portal's hitbox
+ * grown by {@link #EXIT_MARGIN}, so standing on the edge of the hitbox does not re-arm it.
+ */
+public class PortalOccupancy implements Resource<EntityStore> {
+
+  private static final long NO_ACTIVATION = -1L;
+
+  // Hysteresis in blocks between touching the hitbox and having left it
+  static final double EXIT_MARGIN = 0.25;
+  // Used for portals whose hitbox is not known
+  private static final Box FULL_BLOCK = new Box(0, 0, 0, 1, 1, 1);
+  // Used for players without a bounding box
+  private static final Box POINT = new Box(0, 0, 0, 0, 0, 0);
+
+  // Keyed by the player's entity index
+  private final Int2ObjectOpenHashMap<Occupant> occupants = new Int2ObjectOpenHashMap<>();
+  private long currentTick;
+
+  /**
+   * Records an activation attempt and decides whether it should run.
+   *
+   * @param playerRef the activating player
+   * @param positionKey the portal block position, packed with {@link BlockPositionKey}
+   * @param edgeTriggered {@code true} for collisions, which only fire on enter
+   * @return {@code true} if the portal should be activated
+   */
+  public boolean tryActivate(
+      @NonNullDecl Ref<EntityStore> playerRef, long positionKey, boolean edgeTriggered) {
+    Occupant occupant = occupants.get(playerRef.getIndex());
+    if (occupant == null || !occupant.ref.equals(playerRef)) {
+      occupant = new Occupant(playerRef);
+      occupants.put(playerRef.getIndex(), occupant);
+    }
+
+    final var lastActivation = occupant.portals.get(positionKey);
+    if (lastActivation != NO_ACTIVATION && (edgeTriggered || lastActivation == currentTick)) {
+      return false;
+    }
+
+    occupant.portals.put(positionKey, currentTick);
+    return true;
+  }
+
+  /**
+   * Sets the hitbox the player has to leave before a collision with the portal fires again. Without
+   * one, the portal's block is used.
+   *
+   * @param positionKey the portal block position, packed with {@link BlockPositionKey}
+   * @param hitbox the portal's hitbox relative to its block position
+   */
+  public void setHitbox(
+      @NonNullDecl Ref<EntityStore> playerRef, long positionKey, @NonNullDecl Box hitbox) {
+    final var occupant = occupants.get(playerRef.getIndex());
+    if (occupant != null
+        && occupant.ref.equals(playerRef)
+        && occupant.portals.containsKey(positionKey)) {
+      occupant.hitboxes.put(positionKey, hitbox);
+    }
+  }
+
+  /**
+   * Reverts an activation accepted by {@link #tryActivate} that did not run, so a player standing
+   * in the portal triggers it again on the next collision.
+   */
+  public void cancelActivation(@NonNullDecl Ref<EntityStore> playerRef, long positionKey) {
+    final var occupant = occupants.get(playerRef.getIndex());
+    if (occupant != null && occupant.ref.equals(playerRef)) {
+      occupant.portals.remove(positionKey);
+      occupant.hitboxes.remove(positionKey);
+    }
+  }
+
+  /** Advances the tick counter and re-arms portals that their occupants have left. */
+  void tick(@NonNullDecl Store<EntityStore> store) {
+    currentTick++;
+    if (occupants.isEmpty()) {
+      return;
+    }
+
+    final var transformType = TransformComponent.getComponentType();
+    final var boundingBoxType = BoundingBox.getComponentType();
+    final var iterator = occupants.int2ObjectEntrySet().fastIterator();
+    while (iterator.hasNext()) {
+      Int2ObjectMap.Entry<Occupant> entry = iterator.next();
+      Occupant occupant = entry.getValue();
+
+      final var transform =
+          occupant.ref.isValid() ? store.getComponent(occupant.ref, transformType) : null;
+      if (transform == null) {
+        iterator.remove();
+        continue;
+      }
+      final var position = transform.getPosition();
+      final var boundingBox = store.getComponent(occupant.ref, boundingBoxType);
+      final var playerBox = boundingBox != null ? boundingBox.getBoundingBox() : POINT;
+
+      LongIterator portals = occupant.portals.keySet().iterator();
+      while (portals.hasNext()) {
+        final var positionKey = portals.nextLong();
+        final var hitbox = occupant.hitboxes.getOrDefault(positionKey, FULL_BLOCK);
+        if (hasLeft(positionKey, hitbox, position, playerBox)) {
+          portals.remove();
+          occupant.hitboxes.remove(positionKey);
+        }
+      }
+
+      if (occupant.portals.isEmpty()) {
+        iterator.remove();
+      }
+    }
+  }
+
+  // Whether the player's box is apart from the hitbox by more than the margin on any axis
+  private static boolean hasLeft(long positionKey, Box hitbox, Vector3d position, Box playerBox) {
+    final var x = position.getX() - BlockPositionKey.x(positionKey);
+    final var y = position.getY() - BlockPositionKey.y(positionKey);
+    final var z = position.getZ() - BlockPositionKey.z(positionKey);
+    final var min = hitbox.getMin();
+    final var max = hitbox.getMax();
+    final var playerMin = playerBox.getMin();
+    final var playerMax = playerBox.getMax();
+    return isApart(min.getX(), max.getX(), x + playerMin.getX(), x + playerMax.getX())
+        || isApart(min.getY(), max.getY(), y + playerMin.getY(), y + playerMax.getY())
+        || isApart(min.getZ(), max.getZ(), z + playerMin.getZ(), z + playerMax.getZ());
+  }
+
+  private static boolean isApart(double min, double max, double playerMin, double playerMax) {
+    return playerMax < min - EXIT_MARGIN || playerMin > max + EXIT_MARGIN;
+  }
+
+  @NullableDecl
+  @Override
+  @SuppressWarnings("CloneDoesntCallSuperClone")
+  public Resource<EntityStore> clone() {
+    // Occupancy is transient runtime state
+    return new PortalOccupancy();
+  }
+
+  public static ResourceType<EntityStore, PortalOccupancy> getResourceType() {
+    return AdminPortalsPlugin.get().getPortalOccupancyResourceType();
+  }
+
+  private static final class Occupant {
+    private final Ref<EntityStore> ref;
+    // Packed portal position -> tick of the last activation
+    private final Long2LongOpenHashMap portals = new Long2LongOpenHashMap();
+    // Packed portal position -> hitbox relative to the portal block, if known
+    private final Long2ObjectOpenHashMap<Box> hitboxes = new Long2ObjectOpenHashMap<>();
+
+    private Occupant(Ref<EntityStore> ref) {
+      this.ref = ref;
+      this.portals.defaultReturnValue(NO_ACTIVATION);
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package studio.hiwire.adminportals.portal;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/** Advances {@link PortalOccupancy} once per world tick. */
+public class PortalOccupancySystem extends TickingSystem<EntityStore> {
+
+  @Override
+  public void tick(float dt, int systemIndex, @NonNullDecl Store<EntityStore> store) {
+    store.getResource(PortalOccupancy.getResourceType()).tick(store);
+  }
+}
@@ -0,0 +1,111 @@
+package studio.hiwire.adminportals.portal;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+import studio.hiwire.adminportals.AdminPortalsPlugin;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+/**
+ * Per-world token buckets enforcing the {@link PortalConfigComponent.RateLimit} of portals. Only
+ * accessed from the world thread.
+ *
+ * <p>Each bucket is a single {@code long} keyed by the packed portal position: the time at which
+ * the bucket will be full again (the generic cell rate algorithm). Every activation moves that time
+ * one refill interval ahead, and an activation is rejected if it would move it more than {@code
+ * burst} intervals into the future. Full buckets are equivalent to missing ones and are purged
+ * periodically.
+ */
+public class PortalRateLimiter implements Resource<EntityStore> {
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+  private static final long BUSY_MESSAGE_INTERVAL = TimeUnit.SECONDS.toNanos(2);
+  private static final long PURGE_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+  private final LongSupplier clock;
+  // Packed portal position -> time at which the bucket is full again
+  private final Long2LongOpenHashMap buckets = new Long2LongOpenHashMap();
+  // Player entity index -> time of the last "portal busy" message
+  private final Int2LongOpenHashMap busyMessages = new Int2LongOpenHashMap();
+  private long lastPurge;
+
+  public PortalRateLimiter() {
+    this(System::nanoTime);
+  }
+
+  PortalRateLimiter(@NonNullDecl LongSupplier clock) {
+    this.clock = clock;
+    this.lastPurge = clock.getAsLong();
+  }
+
+  /**
+   * Takes a token from the portal's bucket.
+   *
+   * @param positionKey the portal block position, packed with {@link BlockPositionKey}
+   * @return {@code true} if the portal may be activated
+   */
+  public boolean tryAcquire(long positionKey, @NonNullDecl PortalConfigComponent.RateLimit limit) {
+    final var now = clock.getAsLong();
+    purgeIfDue(now);
+
+    final var interval = Math.max(1, (long) (NANOS_PER_SECOND / limit.getActivationsPerSecond()));
+    final var burst = Math.max(1, limit.getBurst());
+
+    final var fullAt = buckets.containsKey(positionKey) ? buckets.get(positionKey) : now;
+    final var next = Math.max(fullAt, now) + interval;
+    if (next - now > interval * burst) {
+      return false;
+    }
+    buckets.put(positionKey, next);
+    return true;
+  }
+
+  /**
+   * Decides whether a player rejected by {@link #tryAcquire} should be told that the portal is
+   * busy. Messages are throttled per player, so players standing in a busy portal are not spammed.
+   */
+  public boolean shouldNotifyBusy(@NonNullDecl Ref<EntityStore> playerRef) {
+    final var now = clock.getAsLong();
+    final var index = playerRef.getIndex();
+    if (busyMessages.containsKey(index) && now - busyMessages.get(index) < BUSY_MESSAGE_INTERVAL) {
+      return false;
+    }
+    busyMessages.put(index, now);
+    return true;
+  }
+
+  int size() {
+    return buckets.size();
+  }
+
+  private void purgeIfDue(long now) {
+    if (now - lastPurge < PURGE_INTERVAL) {
+      return;
+    }
+    lastPurge = now;
+    buckets.long2LongEntrySet().removeIf(entry -> entry.getLongValue() - now <= 0);
+    busyMessages
+        .int2LongEntrySet()
+        .removeIf(entry -> now - entry.getLongValue() >= BUSY_MESSAGE_INTERVAL);
+  }
+
+  @NullableDecl
+  @Override
+  @SuppressWarnings("CloneDoesntCallSuperClone")
+  public Resource<EntityStore> clone() {
+    // Buckets are transient runtime state
+    return new PortalRateLimiter();
+  }
+
+  public static ResourceType<EntityStore, PortalRateLimiter> getResourceType() {
+    return AdminPortalsPlugin.get().getPortalRateLimiterResourceType();
+  }
+}
@@ -0,0 +1,68 @@
+package studio.hiwire.adminportals.portal;
+
+import com.hypixel.hytale.assetstore.event.LoadedAssetsEvent;
+import com.hypixel.hytale.assetstore.event.RemovedAssetsEvent;
+import com.hypixel.hytale.event.EventRegistration;
+import com.hypixel.hytale.event.EventRegistry;
+import com.hypixel.hytale.server.core.asset.type.soundevent.config.SoundEvent;
+import com.hypixel.hytale.server.core.universe.Universe;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * Resolves portal sound effect IDs to their index in the {@link SoundEvent} asset map.
+ *
+ * <p>Resolved configurations keep the index, so activations skip the lookup by ID. When sound
+ * events are loaded or removed, the indices of all cached configurations are resolved again in one
+ * pass per world, on the world thread.
+ */
+public class PortalSoundEvents {
+
+  /** Returned for IDs that are not a known sound event. */
+  public static final int UNKNOWN = -1;
+
+  private final EventRegistration<?, ?> loadedAssetsRegistration;
+  private final EventRegistration<?, ?> removedAssetsRegistration;
+
+  public PortalSoundEvents(@NonNullDecl EventRegistry eventRegistry) {
+    loadedAssetsRegistration =
+        eventRegistry.register(
+            LoadedAssetsEvent.class, SoundEvent.class, event -> resolveAllWorlds());
+    removedAssetsRegistration =
+        eventRegistry.register(
+            RemovedAssetsEvent.class, SoundEvent.class, event -> resolveAllWorlds());
+  }
+
+  public void shutdown() {
+    loadedAssetsRegistration.unregister();
+    removedAssetsRegistration.unregister();
+  }
+
+  /**
+   * Returns the index of the sound event, or {@link #UNKNOWN} if the ID is empty or not a loaded
+   * sound event.
+   */
+  public static int indexOf(@NullableDecl String soundEventId) {
+    if (soundEventId == null || soundEventId.isBlank()) {
+      return UNKNOWN;
+    }
+    final var index = SoundEvent.getAssetMap().getIndex(soundEventId);
+    return index >= 0 ? index : UNKNOWN;
+  }
+
+  private static void resolveAllWorlds() {
+    final var universe = Universe.get();
+    if (universe == null) {
+      return;
+    }
+    for (final var world : universe.getWorlds().values()) {
+      world.execute(
+          () ->
+              world
+                  .getChunkStore()
+                  .getStore()
+                  .getResource(PortalConfigCache.getResourceType())
+                  .resolveSoundEvents());
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package studio.hiwire.adminportals.portal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import studio.hiwire.adminportals.placeholder.PlaceholderManager;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+/**
+ * Validates the commands of many portals against the placeholder registry in parallel. The portals
+ * are collected on their world threads beforehand, the validation itself only reads the immutable
+ * {@link PortalCommands} snapshots and the registry, which is safe from any thread.
+ */
+public final class PortalValidation {
+
+  // Portals validated by one task without splitting further
+  private static final int SEQUENTIAL_THRESHOLD = 256;
+
+  private PortalValidation() {}
+
+  /** Commands of one portal, copied on its world thread. */
+  public record PortalCommands(String world, long position, List<String> commands) {}
+
+  /** A portal using placeholders that are not registered. */
+  public record BrokenPortal(String world, int x, int y, int z, Set<String> missing) {}
+
+  /**
+   * Returns the portals using unknown placeholders, in the order they were given.
+   *
+   * @param pool the pool to validate on
+   * @param placeholderManager the registry to validate against
+   * @param portals the portals to validate
+   */
+  public static List<BrokenPortal> validate(
+      @NonNullDecl ForkJoinPool pool,
+      @NonNullDecl PlaceholderManager placeholderManager,
+      @NonNullDecl List<PortalCommands> portals) {
+    if (portals.isEmpty()) {
+      return List.of();
+    }
+    // Portals are often copies of each other, validate every distinct command once
+    final var missingByCommand = new ConcurrentHashMap<String, Set<String>>();
+    return pool.invoke(
+        new ValidationTask(placeholderManager, missingByCommand, portals, 0, portals.size()));
+  }
+
+  private static final class ValidationTask extends RecursiveTask<List<BrokenPortal>> {
+
+    private final PlaceholderManager placeholderManager;
+    private final ConcurrentHashMap<String, Set<String>> missingByCommand;
+    private final List<PortalCommands> portals;
+    private final int from;
+    private final int to;
+
+    private ValidationTask(
+        PlaceholderManager placeholderManager,
+        ConcurrentHashMap<String, Set<String>> missingByCommand,
+        List<PortalCommands> portals,
+        int from,
+        int to) {
+      this.placeholderManager = placeholderManager;
+      this.missingByCommand = missingByCommand;
+      this.portals = portals;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected List<BrokenPortal> compute() {
+      if (to - from > SEQUENTIAL_THRESHOLD) {
+        final var middle = (from + to) >>> 1;
+        final var left =
+            new ValidationTask(placeholderManager, missingByCommand, portals, from, middle);
+        left.fork();
+        final var right =
+            new ValidationTask(placeholderManager, missingByCommand, portals, middle, to).compute();
+        final var result = left.join();
+        if (right.isEmpty()) {
+          return result;
+        }
+        final var merged = new ArrayList<BrokenPortal>(result.size() + right.size());
+        merged.addAll(result);
+        merged.addAll(right);
+        return merged;
+      }
+
+      List<BrokenPortal> broken = List.of();
+      for (int i = from; i < to; i++) {
+        final var portal = portals.get(i);
+        Set<String> missing = null;
+        for (final var command : portal.commands()) {
+          final var missingInCommand =
+              missingByCommand.computeIfAbsent(
+                  command, placeholderManager::findMissingPlaceholders);
+          if (!missingInCommand.isEmpty()) {
+            if (missing == null) {
+              missing = new TreeSet<>();
+            }
+            missing.addAll(missingInCommand);
+          }
+        }
+        if (missing != null) {
+          if (broken.isEmpty()) {
+            broken = new ArrayList<>();
+          }
+          broken.add(
+              new BrokenPortal(
+                  portal.world(),
+                  BlockPositionKey.x(portal.position()),
+                  BlockPositionKey.y(portal.position()),
+                  BlockPositionKey.z(portal.position()),
+                  missing));
+        }
+      }
+      return broken;
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package studio.hiwire.adminportals.portal;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.placeholder.PlaceholderManager;
+
+/**
+ * Checks the commands of all indexed portals in all loaded worlds for unknown placeholders, so
+ * portals broken by a removed or updated plugin are found before players use them.
+ *
+ * <p>Each world copies the commands of its portals on its own thread, which only reads the {@link
+ * PortalIndex} and the {@link PortalConfigCache}. The validation runs on a dedicated fork-join
+ * pool. Only one scan runs at a time: callers asking for a scan while one is running get the
+ * running one, and a change of the registry during a scan triggers exactly one follow-up scan.
+ */
+public class PortalValidationService {
+
+  public static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+  private static final long COLLECT_TIMEOUT_SECONDS = 10;
+  // Broken portals named in the log after an automatic scan
+  private static final int LOGGED_PORTALS = 10;
+
+  /** Outcome of a scan. */
+  public record Report(
+      int portals, List<PortalValidation.BrokenPortal> broken, long durationMillis) {}
+
+  private final PlaceholderManager placeholderManager;
+  private final ForkJoinPool pool =
+      new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+  private final AtomicReference<CompletableFuture<Report>> running = new AtomicReference<>();
+  private final AtomicBoolean rescanRequested = new AtomicBoolean();
+
+  /** Result of the last completed scan, {@code null} before the first one completed. */
+  @Getter @NullableDecl private volatile Report lastReport;
+
+  public PortalValidationService(@NonNullDecl PlaceholderManager placeholderManager) {
+    this.placeholderManager = placeholderManager;
+  }
+
+  /**
+   * Starts a scan, or returns the running one. The future completes on a pool thread, worlds that
+   * fail to respond are left out of the report. It completes exceptionally if the validation itself
+   * failed, so a failed scan is never reported as all portals being valid.
+   */
+  public CompletableFuture<Report> scan() {
+    final var scan = new CompletableFuture<Report>();
+    final var existing = running.compareAndExchange(null, scan);
+    if (existing != null) {
+      return existing;
+    }
+
+    final var start = System.nanoTime();
+    final var worlds = new ArrayList<>(Universe.get().getWorlds().values());
+    final var collected = new ArrayList<CompletableFuture<List<PortalValidation.PortalCommands>>>();
+    for (final var world : worlds) {
+      collected.add(collect(world));
+    }
+
+    CompletableFuture.allOf(collected.toArray(CompletableFuture[]::new))
+        .thenApplyAsync(
+            ignored -> {
+              final var portals = new ArrayList<PortalValidation.PortalCommands>();
+              for (final var worldPortals : collected) {
+                portals.addAll(worldPortals.join());
+              }
+              final var broken = PortalValidation.validate(pool, placeholderManager, portals);
+              return new Report(
+                  portals.size(), broken, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            },
+            pool)
+        .whenComplete(
+            (report, throwable) -> {
+              if (throwable != null) {
+                LOGGER.at(Level.WARNING).withCause(throwable).log("Portal validation failed");
+              } else {
+                lastReport = report;
+              }
+              running.set(null);
+              if (throwable != null) {
+                scan.completeExceptionally(throwable);
+              } else {
+                scan.complete(report);
+              }
+              if (rescanRequested.getAndSet(false)) {
+                scanAndLog();
+              }
+            });
+    return scan;
+  }
+
+  /**
+   * Requests a scan after the placeholder registry changed and logs its outcome. If a scan is
+   * running it may have read the old registry, so another scan follows it.
+   */
+  public void requestScan() {
+    // The flag is set before checking for a running scan. Either the running scan sees it when it
+    // completes, or it already cleared `running` and the flag is claimed here. The two sides claim
+    // the flag with getAndSet, so exactly one of them starts the follow-up scan.
+    rescanRequested.set(true);
+    if (running.get() == null && rescanRequested.getAndSet(false)) {
+      scanAndLog();
+    }
+  }
+
+  private void scanAndLog() {
+    scan()
+        .thenAccept(
+            report -> {
+              if (report.broken().isEmpty()) {
+                LOGGER.at(Level.FINE).log(
+                    "Validated %d portals in %d ms", report.portals(), report.durationMillis());
+                return;
+              }
+              LOGGER.at(Level.WARNING).log(
+                  "%d of %d portals use unknown placeholders, run /adminportals placeholder"
+                      + " validate for the full list",
+                  report.broken().size(), report.portals());
+              report.broken().stream()
+                  .limit(LOGGED_PORTALS)
+                  .forEach(
+                      portal ->
+                          LOGGER.at(Level.WARNING).log(
+                              "Portal at %d, %d, %d in world %s: %s",
+                              portal.x(),
+                              portal.y(),
+                              portal.z(),
+                              portal.world(),
+                              portal.missing()));
+            });
+  }
+
+  private CompletableFuture<List<PortalValidation.PortalCommands>> collect(World world) {
+    return CompletableFuture.supplyAsync(() -> collectOnWorldThread(world), world)
+        .orTimeout(COLLECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+        .exceptionally(
+            throwable -> {
+              LOGGER.at(Level.WARNING).withCause(throwable).log(
+                  "Could not collect the portals of world %s for validation", world.getName());
+              return List.of();
+            });
+  }
+
+  private List<PortalValidation.PortalCommands> collectOnWorldThread(World world) {
+    final var chunkStore = world.getChunkStore().getStore();
+    final var index = chunkStore.getResource(PortalIndex.getResourceType());
+    final var configCache = chunkStore.getResource(PortalConfigCache.getResourceType());
+    final var portals = new ArrayList<PortalValidation.PortalCommands>(index.size());
+
+    index.forEach(
+        position -> {
+          final var blockEntityRef = index.get(position);
+          if (blockEntityRef == null || !blockEntityRef.isValid()) {
+            return;
+          }
+          final var config = configCache.get(blockEntityRef, chunkStore, placeholderManager);
+          // Commands of teleport portals are never run
+          if (config == null || config.getType() != PortalConfigComponent.Type.Command) {
+            return;
+          }
+
+          final var commands = new ArrayList<String>(config.getCommands().size());
+          for (final var command : config.getCommands()) {
+            commands.add(command.command());
+          }
+          if (!commands.isEmpty()) {
+            portals.add(
+                new PortalValidation.PortalCommands(
+                    world.getName(), position, List.copyOf(commands)));
+          }
+        });
+    return portals;
+  }
+
+  public void shutdown() {
+    pool.shutdownNow();
+  }
+}
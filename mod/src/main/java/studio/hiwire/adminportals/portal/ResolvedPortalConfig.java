@@ -0,0 +1,145 @@
+package studio.hiwire.adminportals.portal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.placeholder.PlaceholderContext;
+import studio.hiwire.adminportals.placeholder.PlaceholderManager;
+import studio.hiwire.adminportals.placeholder.PlaceholderMemo;
+import studio.hiwire.adminportals.placeholder.PlaceholderTemplate;
+
+/**
+ * Runtime view of a {@link PortalConfigComponent} with legacy fields migrated and all defaults
+ * applied. Commands are immutable {@link Command}s with their placeholders compiled, blank ones are
+ * dropped. The teleport destination, the rate limit and the cooldown are private copies, so edits
+ * to the stored component or the configuration page never leak into a cached instance; callers
+ * must not modify them.
+ */
+@Getter
+public final class ResolvedPortalConfig {
+
+  private static final int UNRESOLVED = Integer.MIN_VALUE;
+
+  private final PortalConfigComponent.Type type;
+  private final List<Command> commands;
+  private final String interactionSoundEffectId;
+  private final boolean collisionInteraction;
+  private final boolean useInteraction;
+  @NullableDecl private final PortalConfigComponent.TeleportDestination teleportDestination;
+  @NullableDecl private final PortalConfigComponent.RateLimit rateLimit;
+  @NullableDecl private final PortalConfigComponent.Cooldown cooldown;
+
+  // Index of the interaction sound effect, resolved on first use and again after sound events
+  // reload. Only accessed from the world thread.
+  @Getter(AccessLevel.NONE)
+  private int interactionSoundEventIndex = UNRESOLVED;
+
+  private ResolvedPortalConfig(
+      @NonNullDecl PortalConfigComponent normalized,
+      @NonNullDecl PlaceholderManager placeholderManager) {
+    final var entries = normalized.getCommands();
+    final var commands = new Command[entries.length];
+    int count = 0;
+    for (final var entry : entries) {
+      if (entry.getCommand() != null && !entry.getCommand().isBlank()) {
+        commands[count++] = Command.of(entry, placeholderManager);
+      }
+    }
+
+    final var destination = normalized.getTeleportDestination();
+    final var teleportDestination = destination != null ? destination.clone() : null;
+    final var rateLimit =
+        normalized.getRateLimit() != null ? normalized.getRateLimit().clone() : null;
+    final var cooldown = normalized.getCooldown() != null ? normalized.getCooldown().clone() : null;
+
+    this.type = normalized.getType();
+    this.commands = List.of(Arrays.copyOf(commands, count));
+    this.interactionSoundEffectId = normalized.getInteractionSoundEffectId();
+    this.collisionInteraction = normalized.getCollisionInteraction();
+    this.useInteraction = normalized.getUseInteraction();
+    this.teleportDestination = teleportDestination;
+    this.rateLimit = rateLimit;
+    this.cooldown = cooldown;
+  }
+
+  /**
+   * Returns the index of the interaction sound effect in the sound event asset map.
+   *
+   * @return the index, or {@link PortalSoundEvents#UNKNOWN} if the sound effect does not exist
+   */
+  public int getInteractionSoundEventIndex() {
+    if (interactionSoundEventIndex == UNRESOLVED) {
+      resolveSoundEvent();
+    }
+    return interactionSoundEventIndex;
+  }
+
+  /** Whether all command templates were compiled against the current set of providers. */
+  public boolean isCurrent(@NonNullDecl PlaceholderManager placeholderManager) {
+    for (int i = 0; i < commands.size(); i++) {
+      if (!placeholderManager.isCurrent(commands.get(i).template())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  void resolveSoundEvent() {
+    interactionSoundEventIndex = PortalSoundEvents.indexOf(interactionSoundEffectId);
+  }
+
+  public static ResolvedPortalConfig of(
+      @NonNullDecl PortalConfigComponent component,
+      @NonNullDecl PlaceholderManager placeholderManager) {
+    return new ResolvedPortalConfig(component.migrated().normalized(), placeholderManager);
+  }
+
+  /**
+   * A non-blank command of the portal.
+   *
+   * @param template the compiled command, see {@link #isCurrent(PlaceholderManager)}
+   * @param literal whether the command renders to itself and can be dispatched as is
+   * @param async whether the command runs off the world thread, see {@link
+   *     PortalConfigComponent.ExecutionMode}
+   */
+  public record Command(
+      @NonNullDecl String command,
+      @NonNullDecl PortalConfigComponent.CommandSender sender,
+      @NonNullDecl PlaceholderTemplate template,
+      boolean literal,
+      boolean async,
+      @NonNullDecl PortalConfigComponent.Priority priority) {
+
+    /** Renders the command for an activation, literal commands are returned as they are. */
+    public String render(
+        @NullableDecl PlaceholderContext context, @NullableDecl PlaceholderMemo memo) {
+      return literal ? command : template.render(context, memo);
+    }
+
+    /** Like {@link #render}, but waits for the async placeholders of the command. */
+    public CompletableFuture<String> renderAsync(
+        @NullableDecl PlaceholderContext context, @NullableDecl PlaceholderMemo memo) {
+      return literal
+          ? CompletableFuture.completedFuture(command)
+          : template.renderAsync(context, memo);
+    }
+
+    static Command of(
+        @NonNullDecl PortalConfigComponent.CommandEntry entry,
+        @NonNullDecl PlaceholderManager placeholderManager) {
+      final var template = placeholderManager.compile(entry.getCommand());
+      return new Command(
+          entry.getCommand(),
+          entry.getCommandSender(),
+          template,
+          template.isLiteral(),
+          entry.isAsync(),
+          entry.getPriority());
+    }
+  }
+}
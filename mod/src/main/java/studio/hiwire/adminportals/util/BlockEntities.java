@@ -0,0 +1,69 @@
+package studio.hiwire.adminportals.util;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.modules.block.BlockModule;
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/** Helpers for block entities stored in the {@link ChunkStore}. */
+public final class BlockEntities {
+
+  private BlockEntities() {}
+
+  /**
+   * Resolves the world position of a block entity from its {@link BlockModule.BlockStateInfo}.
+   *
+   * @return the block position, or {@code null} if the block entity or its chunk is not available
+   */
+  @Nullable
+  public static Vector3i getPosition(
+      @Nonnull Store<ChunkStore> store, @Nonnull Ref<ChunkStore> blockEntityRef) {
+    final var blockInfo =
+        store.getComponent(blockEntityRef, BlockModule.BlockStateInfo.getComponentType());
+    if (blockInfo == null) {
+      return null;
+    }
+
+    final var worldChunk = getChunk(store, blockInfo);
+    if (worldChunk == null) {
+      return null;
+    }
+
+    int blockIndex = blockInfo.getIndex();
+    return new Vector3i(
+        ChunkUtil.worldCoordFromLocalCoord(
+            worldChunk.getX(), ChunkUtil.xFromBlockInColumn(blockIndex)),
+        ChunkUtil.yFromBlockInColumn(blockIndex),
+        ChunkUtil.worldCoordFromLocalCoord(
+            worldChunk.getZ(), ChunkUtil.zFromBlockInColumn(blockIndex)));
+  }
+
+  /**
+   * Resolves the chunk holding a block entity from its {@link BlockModule.BlockStateInfo}.
+   *
+   * @return the chunk, or {@code null} if the block entity or its chunk is not available
+   */
+  @Nullable
+  public static WorldChunk getChunk(
+      @Nonnull Store<ChunkStore> store, @Nonnull Ref<ChunkStore> blockEntityRef) {
+    final var blockInfo =
+        store.getComponent(blockEntityRef, BlockModule.BlockStateInfo.getComponentType());
+    return blockInfo != null ? getChunk(store, blockInfo) : null;
+  }
+
+  @Nullable
+  private static WorldChunk getChunk(
+      @Nonnull Store<ChunkStore> store, @Nonnull BlockModule.BlockStateInfo blockInfo) {
+    final var chunkRef = blockInfo.getChunkRef();
+    if (!chunkRef.isValid()) {
+      return null;
+    }
+
+    return store.getComponent(chunkRef, WorldChunk.getComponentType());
+  }
+}
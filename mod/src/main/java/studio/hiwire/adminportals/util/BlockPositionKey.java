@@ -0,0 +1,33 @@
+package studio.hiwire.adminportals.util;
+
+/**
+ * Packs block positions into a single {@code long} for use as a key in primitive maps. X and Z use
+ * 26 bits each and Y uses 12 bits, all stored as two's complement.
+ */
+public final class BlockPositionKey {
+
+  private static final int XZ_BITS = 26;
+  private static final int Y_BITS = 12;
+  private static final long XZ_MASK = (1L << XZ_BITS) - 1;
+  private static final long Y_MASK = (1L << Y_BITS) - 1;
+  private static final int X_SHIFT = XZ_BITS + Y_BITS;
+  private static final int Z_SHIFT = Y_BITS;
+
+  private BlockPositionKey() {}
+
+  public static long pack(int x, int y, int z) {
+    return ((x & XZ_MASK) << X_SHIFT) | ((z & XZ_MASK) << Z_SHIFT) | (y & Y_MASK);
+  }
+
+  public static int x(long key) {
+    return (int) (key >> X_SHIFT);
+  }
+
+  public static int y(long key) {
+    return (int) (key << (Long.SIZE - Y_BITS) >> (Long.SIZE - Y_BITS));
+  }
+
+  public static int z(long key) {
+    return (int) (key << XZ_BITS >> (XZ_BITS + Y_BITS));
+  }
+}
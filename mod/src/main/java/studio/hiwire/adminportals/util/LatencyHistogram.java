@@ -0,0 +1,109 @@
+package studio.hiwire.adminportals.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Concurrent histogram of durations in nanoseconds with log-linear buckets in the style of
+ * HdrHistogram: every power of two is split into {@value #SUB_BUCKETS} buckets, so recorded values
+ * are reported with a relative error of at most 12.5%. Values above about 18 minutes share the last
+ * bucket.
+ *
+ * <p>Recording is lock-free and allocation-free. Counts are striped by thread, so world threads
+ * recording the same histogram do not contend on a single cache line. Reads sum all stripes and may
+ * miss values recorded concurrently.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_EXPONENT = 40;
+  private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+  static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private static final int STRIPES =
+      Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors(), 16));
+  // Bucket count of each stripe is padded to keep stripes on separate cache lines
+  private static final int STRIPE_LENGTH = BUCKETS + 16;
+
+  private final AtomicLongArray counts = new AtomicLongArray(STRIPES * STRIPE_LENGTH);
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  public void record(long nanos) {
+    final var value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+    final var stripe = (int) Thread.currentThread().threadId() & (STRIPES - 1);
+    counts.incrementAndGet(stripe * STRIPE_LENGTH + bucketIndex(value));
+    max.accumulate(value);
+  }
+
+  public long getCount() {
+    long count = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      count += counts.get(i);
+    }
+    return count;
+  }
+
+  /** Returns the largest recorded value, exact up to the capped maximum. */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Returns the value below which the given percentage of recorded values fall, reported as the
+   * upper bound of its bucket, or 0 if nothing was recorded.
+   *
+   * @param percentile between 0 and 100
+   */
+  public long getValueAtPercentile(double percentile) {
+    final var buckets = new long[BUCKETS];
+    long total = 0;
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      for (int i = 0; i < BUCKETS; i++) {
+        final var count = counts.get(stripe * STRIPE_LENGTH + i);
+        buckets[i] += count;
+        total += count;
+      }
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    final var clamped = Math.min(Math.max(percentile, 0), 100);
+    final var target = Math.max(1, (long) Math.ceil(total * clamped / 100));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += buckets[i];
+      if (seen >= target) {
+        return Math.min(bucketUpperBound(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  public void reset() {
+    for (int i = 0; i < counts.length(); i++) {
+      counts.set(i, 0);
+    }
+    max.reset();
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    final var exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    final var subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long bucketUpperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    final var exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    final var subBucket = index % SUB_BUCKETS;
+    final var width = 1L << (exponent - SUB_BUCKET_BITS);
+    return ((SUB_BUCKETS + subBucket) * width) + width - 1;
+  }
+}
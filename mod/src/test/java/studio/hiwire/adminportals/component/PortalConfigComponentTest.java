@@ -26,6 +26,9 @@ class PortalConfigComponentTest {
               null,
               "SFX_Custom_Sound",
               null,
+              null,
+              null,
+              null,
               null);
 
       PortalConfigComponent migrated = config.migrated();
@@ -44,7 +47,16 @@ class PortalConfigComponentTest {
     void shouldDefaultSenderWhenNull() {
       PortalConfigComponent config =
           new PortalConfigComponent(
-              PortalConfigComponent.Type.Command, "legacy command", null, null, null, null, null);
+              PortalConfigComponent.Type.Command,
+              "legacy command",
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null);
 
       PortalConfigComponent migrated = config.migrated();
 
@@ -70,6 +82,9 @@ class PortalConfigComponentTest {
               commands,
               null,
               null,
+              null,
+              null,
+              null,
               null);
 
       PortalConfigComponent migrated = config.migrated();
@@ -86,7 +101,16 @@ class PortalConfigComponentTest {
     void shouldReturnEmptyArrayWhenNoCommandsAndNoLegacy() {
       PortalConfigComponent config =
           new PortalConfigComponent(
-              PortalConfigComponent.Type.Command, null, null, null, null, null, null);
+              PortalConfigComponent.Type.Command,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null);
 
       PortalConfigComponent migrated = config.migrated();
 
@@ -104,6 +128,9 @@ class PortalConfigComponentTest {
               null,
               null,
               null,
+              null,
+              null,
+              null,
               null);
 
       PortalConfigComponent migrated = config.migrated();
@@ -124,6 +151,9 @@ class PortalConfigComponentTest {
               null,
               null,
               null,
+              null,
+              null,
+              null,
               null);
 
       PortalConfigComponent migrated = config.migrated();
@@ -145,7 +175,16 @@ class PortalConfigComponentTest {
           };
       PortalConfigComponent config =
           new PortalConfigComponent(
-              PortalConfigComponent.Type.Command, null, null, commands, null, null, null);
+              PortalConfigComponent.Type.Command,
+              null,
+              null,
+              commands,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null);
 
       PortalConfigComponent migrated = config.migrated();
 
@@ -159,7 +198,7 @@ class PortalConfigComponentTest {
     @Test
     void shouldUseDefaultsForAllNullFields() {
       PortalConfigComponent config =
-          new PortalConfigComponent(null, null, null, null, null, null, null);
+          new PortalConfigComponent(null, null, null, null, null, null, null, null, null, null);
 
       PortalConfigComponent normalized = config.normalized();
 
@@ -179,7 +218,16 @@ class PortalConfigComponentTest {
     void shouldPreserveEmptyInteractionSound() {
       PortalConfigComponent config =
           new PortalConfigComponent(
-              PortalConfigComponent.Type.Command, null, null, null, "", null, null);
+              PortalConfigComponent.Type.Command,
+              null,
+              null,
+              null,
+              "",
+              null,
+              null,
+              null,
+              null,
+              null);
 
       PortalConfigComponent normalized = config.normalized();
 
@@ -201,6 +249,9 @@ class PortalConfigComponentTest {
               commands,
               "SFX_Custom_Sound",
               null,
+              null,
+              null,
+              null,
               null);
 
       PortalConfigComponent normalized = config.normalized();
@@ -214,7 +265,7 @@ class PortalConfigComponentTest {
     @Test
     void shouldDefaultNullCollisionInteraction() {
       PortalConfigComponent config =
-          new PortalConfigComponent(null, null, null, null, null, null, null);
+          new PortalConfigComponent(null, null, null, null, null, null, null, null, null, null);
 
       PortalConfigComponent normalized = config.normalized();
 
@@ -226,7 +277,7 @@ class PortalConfigComponentTest {
     @Test
     void shouldPreserveExplicitTrueCollisionInteraction() {
       PortalConfigComponent config =
-          new PortalConfigComponent(null, null, null, null, null, true, null);
+          new PortalConfigComponent(null, null, null, null, null, true, null, null, null, null);
 
       PortalConfigComponent normalized = config.normalized();
 
@@ -236,7 +287,7 @@ class PortalConfigComponentTest {
     @Test
     void shouldPreserveExplicitFalseCollisionInteraction() {
       PortalConfigComponent config =
-          new PortalConfigComponent(null, null, null, null, null, false, null);
+          new PortalConfigComponent(null, null, null, null, null, false, null, null, null, null);
 
       PortalConfigComponent normalized = config.normalized();
 
@@ -246,7 +297,7 @@ class PortalConfigComponentTest {
     @Test
     void shouldDefaultNullUseInteraction() {
       PortalConfigComponent config =
-          new PortalConfigComponent(null, null, null, null, null, null, null);
+          new PortalConfigComponent(null, null, null, null, null, null, null, null, null, null);
 
       PortalConfigComponent normalized = config.normalized();
 
@@ -256,7 +307,7 @@ class PortalConfigComponentTest {
     @Test
     void shouldPreserveExplicitTrueUseInteraction() {
       PortalConfigComponent config =
-          new PortalConfigComponent(null, null, null, null, null, null, true);
+          new PortalConfigComponent(null, null, null, null, null, null, true, null, null, null);
 
       PortalConfigComponent normalized = config.normalized();
 
@@ -266,7 +317,7 @@ class PortalConfigComponentTest {
     @Test
     void shouldPreserveExplicitFalseUseInteraction() {
       PortalConfigComponent config =
-          new PortalConfigComponent(null, null, null, null, null, null, false);
+          new PortalConfigComponent(null, null, null, null, null, null, false, null, null, null);
 
       PortalConfigComponent normalized = config.normalized();
 
@@ -280,7 +331,8 @@ class PortalConfigComponentTest {
     @Test
     void shouldMigrateLegacyAndApplyDefaults() {
       PortalConfigComponent config =
-          new PortalConfigComponent(null, "my command", null, null, "", null, null);
+          new PortalConfigComponent(
+              null, "my command", null, null, "", null, null, null, null, null);
 
       PortalConfigComponent result = config.migrated().normalized();
 
@@ -297,7 +349,7 @@ class PortalConfigComponentTest {
     @Test
     void shouldHandleAllNullFields() {
       PortalConfigComponent config =
-          new PortalConfigComponent(null, null, null, null, null, null, null);
+          new PortalConfigComponent(null, null, null, null, null, null, null, null, null, null);
 
       PortalConfigComponent result = config.migrated().normalized();
 
@@ -311,4 +363,219 @@ class PortalConfigComponentTest {
           result.getInteractionSoundEffectId());
     }
   }
+
+  @Nested
+  class RateLimit {
+
+    @Test
+    void normalizedShouldKeepMissingRateLimitNull() {
+      PortalConfigComponent config = new PortalConfigComponent();
+
+      assertNull(config.migrated().normalized().getRateLimit());
+    }
+
+    @Test
+    void cloneShouldCopyRateLimit() {
+      PortalConfigComponent.RateLimit rateLimit = new PortalConfigComponent.RateLimit(2.5, 5);
+      PortalConfigComponent config =
+          new PortalConfigComponent(
+              PortalConfigComponent.Type.Command,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              rateLimit,
+              null);
+
+      PortalConfigComponent clone = (PortalConfigComponent) config.clone();
+      rateLimit.setBurst(1);
+
+      assertEquals(new PortalConfigComponent.RateLimit(2.5, 5), clone.getRateLimit());
+      assertEquals(rateLimit, config.migrated().normalized().getRateLimit());
+    }
+  }
+
+  @Nested
+  class Cooldown {
+
+    @Test
+    void normalizedShouldKeepMissingCooldownNull() {
+      PortalConfigComponent config = new PortalConfigComponent();
+
+      assertNull(config.migrated().normalized().getCooldown());
+    }
+
+    @Test
+    void cloneShouldCopyCooldown() {
+      PortalConfigComponent.Cooldown cooldown = new PortalConfigComponent.Cooldown(30, true);
+      PortalConfigComponent config =
+          new PortalConfigComponent(
+              PortalConfigComponent.Type.Command,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              cooldown);
+
+      PortalConfigComponent clone = (PortalConfigComponent) config.clone();
+      cooldown.setGlobal(false);
+
+      assertEquals(new PortalConfigComponent.Cooldown(30, true), clone.getCooldown());
+      assertEquals(cooldown, config.migrated().normalized().getCooldown());
+    }
+  }
+
+  @Nested
+  class Teleport {
+
+    @Test
+    void normalizedShouldKeepTeleportDestination() {
+      PortalConfigComponent.TeleportDestination destination =
+          new PortalConfigComponent.TeleportDestination("other", 1.5, 64, -3, 90, 10);
+      PortalConfigComponent config =
+          new PortalConfigComponent(
+              PortalConfigComponent.Type.Teleport,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              destination,
+              null,
+              null);
+
+      PortalConfigComponent normalized = config.migrated().normalized();
+
+      assertEquals(PortalConfigComponent.Type.Teleport, normalized.getType());
+      assertEquals(destination, normalized.getTeleportDestination());
+    }
+
+    @Test
+    void normalizedShouldLeaveMissingTeleportDestinationNull() {
+      PortalConfigComponent config =
+          new PortalConfigComponent(
+              PortalConfigComponent.Type.Teleport,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null);
+
+      assertNull(config.normalized().getTeleportDestination());
+    }
+
+    @Test
+    void cloneShouldCopyTeleportDestination() {
+      PortalConfigComponent.TeleportDestination destination =
+          new PortalConfigComponent.TeleportDestination("", 1, 2, 3, 0, 0);
+      PortalConfigComponent config =
+          new PortalConfigComponent(
+              PortalConfigComponent.Type.Teleport,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              destination,
+              null,
+              null);
+
+      PortalConfigComponent clone = (PortalConfigComponent) config.clone();
+
+      assertNotSame(destination, clone.getTeleportDestination());
+      assertEquals(destination, clone.getTeleportDestination());
+    }
+  }
+
+  @Nested
+  class CommandEntry {
+
+    @Test
+    void shouldDefaultToSyncExecution() {
+      PortalConfigComponent.CommandEntry entry =
+          new PortalConfigComponent.CommandEntry("cmd", PortalConfigComponent.CommandSender.Server);
+
+      assertEquals(PortalConfigComponent.DEFAULT_EXECUTION_MODE, entry.getExecutionMode());
+      assertFalse(entry.isAsync());
+    }
+
+    @Test
+    void asyncShouldOnlyApplyToServerCommands() {
+      PortalConfigComponent.CommandEntry server =
+          new PortalConfigComponent.CommandEntry(
+              "cmd",
+              PortalConfigComponent.CommandSender.Server,
+              PortalConfigComponent.ExecutionMode.Async);
+      PortalConfigComponent.CommandEntry player =
+          new PortalConfigComponent.CommandEntry(
+              "cmd",
+              PortalConfigComponent.CommandSender.Player,
+              PortalConfigComponent.ExecutionMode.Async);
+
+      assertTrue(server.isAsync());
+      assertFalse(player.isAsync());
+    }
+
+    @Test
+    void shouldDetectLiteralCommands() {
+      PortalConfigComponent.CommandEntry entry =
+          new PortalConfigComponent.CommandEntry(
+              "spawn", PortalConfigComponent.CommandSender.Player);
+      assertTrue(entry.isLiteral());
+
+      entry.setCommand("tp {PlayerUsername} 0 64 0");
+      assertFalse(entry.isLiteral());
+
+      entry.setCommand("say hi");
+      assertTrue(entry.isLiteral());
+      assertTrue(entry.clone().isLiteral());
+    }
+
+    @Test
+    void cloneShouldKeepExecutionMode() {
+      PortalConfigComponent.CommandEntry entry =
+          new PortalConfigComponent.CommandEntry(
+              "cmd",
+              PortalConfigComponent.CommandSender.Server,
+              PortalConfigComponent.ExecutionMode.Async);
+
+      assertEquals(PortalConfigComponent.ExecutionMode.Async, entry.clone().getExecutionMode());
+    }
+
+    @Test
+    void shouldDefaultToNormalPriority() {
+      PortalConfigComponent.CommandEntry entry =
+          new PortalConfigComponent.CommandEntry(
+              "cmd",
+              PortalConfigComponent.CommandSender.Server,
+              PortalConfigComponent.ExecutionMode.Sync);
+
+      assertEquals(PortalConfigComponent.Priority.Normal, entry.getPriority());
+    }
+
+    @Test
+    void cloneShouldKeepPriority() {
+      PortalConfigComponent.CommandEntry entry =
+          new PortalConfigComponent.CommandEntry(
+              "cmd",
+              PortalConfigComponent.CommandSender.Server,
+              PortalConfigComponent.ExecutionMode.Sync,
+              PortalConfigComponent.Priority.Critical);
+
+      assertEquals(PortalConfigComponent.Priority.Critical, entry.clone().getPriority());
+    }
+  }
 }
@@ -0,0 +1,155 @@
+package studio.hiwire.adminportals.dispatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+
+class AsyncCommandExecutorTest {
+
+  private final List<String> executed = new CopyOnWriteArrayList<>();
+  private final CountDownLatch release = new CountDownLatch(1);
+  // Returned for "held" commands, which finish only once it is completed
+  private final CompletableFuture<Void> held = new CompletableFuture<>();
+
+  private AsyncCommandExecutor executor;
+  private World world;
+  private PlayerRef alice;
+  private PlayerRef bob;
+
+  @BeforeEach
+  void setup() {
+    executor =
+        new AsyncCommandExecutor(
+            command -> {
+              if (command.command().startsWith("slow")) {
+                try {
+                  release.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return CompletableFuture.failedFuture(e);
+                }
+              }
+              executed.add(command.command());
+              return command.command().startsWith("held")
+                  ? held
+                  : CompletableFuture.completedFuture(null);
+            });
+    // Runs world tasks inline
+    world = mock(World.class);
+    doAnswer(
+            invocation -> {
+              invocation.<Runnable>getArgument(0).run();
+              return null;
+            })
+        .when(world)
+        .execute(any());
+    alice = player();
+    bob = player();
+  }
+
+  @AfterEach
+  void teardown() {
+    executor.shutdown();
+  }
+
+  private static PlayerRef player() {
+    PlayerRef player = mock(PlayerRef.class);
+    final var uuid = UUID.randomUUID();
+    when(player.getUuid()).thenReturn(uuid);
+    return player;
+  }
+
+  private static QueuedCommand command(PlayerRef player, String command, boolean async) {
+    return new QueuedCommand(
+        player,
+        PortalConfigComponent.CommandSender.Server,
+        command,
+        async,
+        0L,
+        PortalConfigComponent.Priority.Normal);
+  }
+
+  @Test
+  void commandsOfOnePlayerShouldRunInOrder() throws Exception {
+    final var first = executor.submit(world, command(alice, "slow-1", true), 5_000);
+    final var second = executor.submit(world, command(alice, "sync-2", false), 5_000);
+    final var third = executor.submit(world, command(alice, "fast-3", true), 5_000);
+
+    assertTrue(executor.hasPending(alice.getUuid()));
+    assertTrue(executed.isEmpty());
+
+    release.countDown();
+    CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+
+    assertEquals(List.of("slow-1", "sync-2", "fast-3"), executed);
+    assertFalse(executor.hasPending(alice.getUuid()));
+  }
+
+  @Test
+  void slowCommandShouldNotBlockOtherPlayers() throws Exception {
+    final var slow = executor.submit(world, command(alice, "slow", true), 5_000);
+    executor.submit(world, command(bob, "fast", true), 5_000).get(5, TimeUnit.SECONDS);
+
+    assertEquals(List.of("fast"), executed);
+
+    release.countDown();
+    slow.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void timedOutCommandShouldReleaseTheNextCommand() throws Exception {
+    executor.submit(world, command(alice, "slow", true), 50);
+    executor.submit(world, command(alice, "next", true), 5_000).get(5, TimeUnit.SECONDS);
+
+    assertEquals(List.of("next"), executed);
+  }
+
+  @Test
+  void syncCommandShouldNotBlockTheWorldThread() throws Exception {
+    final var first = executor.submit(world, command(alice, "held-1", false), 5_000);
+    final var second = executor.submit(world, command(alice, "sync-2", false), 5_000);
+
+    // world.execute returned although the first command is still running
+    assertEquals(List.of("held-1"), executed);
+    assertFalse(first.isDone());
+
+    held.complete(null);
+    CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+    assertEquals(List.of("held-1", "sync-2"), executed);
+    assertFalse(executor.hasPending(alice.getUuid()));
+  }
+
+  @Test
+  void unfinishedSyncCommandShouldTimeOut() throws Exception {
+    executor.submit(world, command(alice, "held", false), 50);
+    executor.submit(world, command(alice, "next", false), 5_000).get(5, TimeUnit.SECONDS);
+
+    assertEquals(List.of("held", "next"), executed);
+  }
+
+  @Test
+  void unfinishedAsyncCommandShouldTimeOut() throws Exception {
+    executor.submit(world, command(alice, "held", true), 50);
+    executor.submit(world, command(alice, "next", true), 5_000).get(5, TimeUnit.SECONDS);
+
+    assertEquals(List.of("held", "next"), executed);
+  }
+}
@@ -0,0 +1,323 @@
+package studio.hiwire.adminportals.dispatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+class CommandDispatchQueueTest {
+
+  private static final long PORTAL = BlockPositionKey.pack(10, 64, 20);
+  private static final long OTHER_PORTAL = BlockPositionKey.pack(40, 64, 20);
+  private static final long BUDGET = 1_000;
+
+  private long now;
+  private CommandDispatchQueue queue;
+  private PlayerRef alice;
+  private PlayerRef bob;
+  private List<String> executed;
+
+  @BeforeEach
+  void setup() {
+    queue = new CommandDispatchQueue(() -> now);
+    alice = player();
+    bob = player();
+    executed = new ArrayList<>();
+  }
+
+  private static PlayerRef player() {
+    final var player = mock(PlayerRef.class);
+    final var uuid = UUID.randomUUID();
+    when(player.getUuid()).thenReturn(uuid);
+    return player;
+  }
+
+  private QueuedCommand command(PlayerRef player, String command) {
+    return command(player, command, PORTAL);
+  }
+
+  private QueuedCommand command(PlayerRef player, String command, long portalKey) {
+    return command(player, command, portalKey, PortalConfigComponent.Priority.Normal);
+  }
+
+  private QueuedCommand command(
+      PlayerRef player, String command, PortalConfigComponent.Priority priority) {
+    return command(player, command, PORTAL, priority);
+  }
+
+  private QueuedCommand command(
+      PlayerRef player, String command, long portalKey, PortalConfigComponent.Priority priority) {
+    return new QueuedCommand(
+        player, PortalConfigComponent.CommandSender.Server, command, false, portalKey, priority);
+  }
+
+  // Executes the command and advances the clock as if it took the given time
+  private Consumer<QueuedCommand> taking(long nanos) {
+    return c -> {
+      executed.add(c.command());
+      now += nanos;
+    };
+  }
+
+  @Test
+  void drainShouldExecuteInEnqueueOrder() {
+    queue.enqueue(command(alice, "a1"));
+    queue.enqueue(command(bob, "b1"));
+    queue.enqueue(command(alice, "a2"));
+
+    assertEquals(3, queue.drain(0, 0, false, c -> executed.add(c.command())));
+    assertEquals(List.of("a1", "b1", "a2"), executed);
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  void drainShouldCarryOverCommandsAboveLimit() {
+    queue.enqueue(command(alice, "a1"));
+    queue.enqueue(command(alice, "a2"));
+    queue.enqueue(command(alice, "a3"));
+
+    assertEquals(2, queue.drain(2, 0, false, c -> executed.add(c.command())));
+    assertEquals(List.of("a1", "a2"), executed);
+    assertEquals(1, queue.size());
+
+    assertEquals(1, queue.drain(2, 0, false, c -> executed.add(c.command())));
+    assertEquals(List.of("a1", "a2", "a3"), executed);
+  }
+
+  @Test
+  void commandsEnqueuedWhileDrainingShouldWaitForNextDrain() {
+    queue.enqueue(command(alice, "a1"));
+
+    queue.drain(
+        0,
+        0,
+        false,
+        c -> {
+          executed.add(c.command());
+          queue.enqueue(command(alice, "follow-up"));
+        });
+
+    assertEquals(List.of("a1"), executed);
+    assertEquals(1, queue.size());
+  }
+
+  @Test
+  void failingCommandShouldNotStopTheBatch() {
+    queue.enqueue(command(alice, "broken"));
+    queue.enqueue(command(bob, "b1"));
+
+    queue.drain(
+        0,
+        0,
+        false,
+        c -> {
+          if (c.command().equals("broken")) {
+            throw new IllegalStateException("boom");
+          }
+          executed.add(c.command());
+        });
+
+    assertEquals(List.of("b1"), executed);
+  }
+
+  @Test
+  void portalsShouldTakeTurns() {
+    queue.enqueue(command(alice, "a1", PORTAL));
+    queue.enqueue(command(alice, "a2", PORTAL));
+    queue.enqueue(command(alice, "a3", PORTAL));
+    queue.enqueue(command(bob, "b1", OTHER_PORTAL));
+    queue.enqueue(command(bob, "b2", OTHER_PORTAL));
+
+    queue.drain(0, 0, false, c -> executed.add(c.command()));
+
+    assertEquals(List.of("a1", "b1", "a2", "b2", "a3"), executed);
+  }
+
+  @Test
+  void roundRobinPositionShouldCarryOver() {
+    queue.enqueue(command(alice, "a1", PORTAL));
+    queue.enqueue(command(alice, "a2", PORTAL));
+    queue.enqueue(command(bob, "b1", OTHER_PORTAL));
+    queue.enqueue(command(bob, "b2", OTHER_PORTAL));
+
+    assertEquals(1, queue.drain(1, 0, false, c -> executed.add(c.command())));
+    assertEquals(1, queue.drain(1, 0, false, c -> executed.add(c.command())));
+    assertEquals(1, queue.drain(1, 0, false, c -> executed.add(c.command())));
+
+    assertEquals(List.of("a1", "b1", "a2"), executed);
+    assertEquals(1, queue.size());
+  }
+
+  @Test
+  void drainShouldStopWhenTimeBudgetIsUsed() {
+    for (int i = 1; i <= 5; i++) {
+      queue.enqueue(command(alice, "a" + i));
+    }
+
+    assertEquals(3, queue.drain(0, BUDGET, false, taking(400)));
+    assertEquals(List.of("a1", "a2", "a3"), executed);
+    assertEquals(2, queue.size());
+  }
+
+  @Test
+  void overrunShouldBeTakenFromNextBudget() {
+    for (int i = 1; i <= 4; i++) {
+      queue.enqueue(command(alice, "a" + i));
+    }
+
+    // 1500ns over a 1000ns budget leaves 500ns for the next drain
+    assertEquals(1, queue.drain(0, BUDGET, false, taking(1_500)));
+    assertEquals(2, queue.drain(0, BUDGET, false, taking(300)));
+    assertEquals(1, queue.size());
+  }
+
+  @Test
+  void largeOverrunShouldSkipOneDrainAtMost() {
+    queue.enqueue(command(alice, "slow"));
+    queue.enqueue(command(alice, "a1"));
+    queue.enqueue(command(alice, "a2"));
+
+    assertEquals(1, queue.drain(0, BUDGET, false, taking(50_000)));
+    assertEquals(0, queue.drain(0, BUDGET, false, taking(100)));
+    assertEquals(2, queue.drain(0, BUDGET, false, taking(100)));
+  }
+
+  @Test
+  void cloneShouldKeepPortalOrder() {
+    queue.enqueue(command(alice, "a1", PORTAL));
+    queue.enqueue(command(bob, "b1", OTHER_PORTAL));
+    queue.enqueue(command(alice, "a2", PORTAL));
+
+    final var copy = (CommandDispatchQueue) queue.clone();
+    copy.drain(0, 0, false, c -> executed.add(c.command()));
+
+    assertEquals(List.of("a1", "b1", "a2"), executed);
+    assertEquals(3, queue.size());
+  }
+
+  @Test
+  void lowPriorityCommandsShouldBeDroppedWhileShedding() {
+    queue.enqueue(command(alice, "low", PortalConfigComponent.Priority.Low));
+    queue.enqueue(command(alice, "a1"));
+
+    assertEquals(1, queue.drain(0, 0, true, c -> executed.add(c.command())));
+    assertEquals(List.of("a1"), executed);
+    assertEquals(1, queue.getDroppedCommands());
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  void lowPriorityCommandsShouldRunWithoutPressure() {
+    queue.enqueue(command(alice, "low", PortalConfigComponent.Priority.Low));
+
+    assertEquals(1, queue.drain(0, 0, false, c -> executed.add(c.command())));
+    assertEquals(List.of("low"), executed);
+    assertEquals(0, queue.getDroppedCommands());
+  }
+
+  @Test
+  void criticalCommandsShouldRunPastTheLimitAndBudget() {
+    queue.enqueue(command(alice, "a1"));
+    queue.enqueue(command(alice, "critical", PortalConfigComponent.Priority.Critical));
+    queue.enqueue(command(alice, "a2"));
+    queue.enqueue(
+        command(bob, "critical-other", OTHER_PORTAL, PortalConfigComponent.Priority.Critical));
+
+    assertEquals(3, queue.drain(1, BUDGET, false, taking(2_000)));
+    assertEquals(List.of("a1", "critical-other", "critical"), executed);
+    assertEquals(1, queue.size());
+  }
+
+  @Test
+  void criticalCommandsShouldRunWhenOverrunSkipsTheDrain() {
+    queue.enqueue(command(alice, "slow"));
+    assertEquals(1, queue.drain(0, BUDGET, false, taking(50_000)));
+    executed.clear();
+
+    queue.enqueue(command(alice, "critical", PortalConfigComponent.Priority.Critical));
+    queue.enqueue(command(alice, "a1"));
+
+    assertEquals(1, queue.drain(0, BUDGET, false, taking(100)));
+    assertEquals(List.of("critical"), executed);
+    assertEquals(1, queue.size());
+  }
+
+  @Test
+  void criticalCommandsShouldNotOvertakeEarlierCommandsOfTheirPortal() {
+    queue.enqueue(command(alice, "a1"));
+    queue.enqueue(command(alice, "a2"));
+    queue.enqueue(command(alice, "critical", PortalConfigComponent.Priority.Critical));
+
+    assertEquals(1, queue.drain(1, 0, false, c -> executed.add(c.command())));
+    assertEquals(List.of("a1"), executed);
+    assertEquals(2, queue.size());
+  }
+
+  @Test
+  void lowPriorityCommandsInFrontOfCriticalOnesShouldBeDroppedWhileShedding() {
+    queue.enqueue(command(alice, "slow"));
+    queue.enqueue(command(alice, "low", PortalConfigComponent.Priority.Low));
+    queue.enqueue(command(alice, "critical", PortalConfigComponent.Priority.Critical));
+    queue.enqueue(command(alice, "a1"));
+
+    assertEquals(2, queue.drain(1, BUDGET, true, taking(100)));
+    assertEquals(List.of("slow", "critical"), executed);
+    assertEquals(1, queue.getDroppedCommands());
+    assertEquals(1, queue.size());
+  }
+
+  @Test
+  void playerCommandsShouldKeepActivationOrderAcrossPortals() {
+    queue.enqueue(command(alice, "a1", PORTAL));
+    queue.enqueue(command(alice, "a2", PORTAL));
+    queue.enqueue(command(alice, "a3", OTHER_PORTAL));
+    queue.enqueue(command(alice, "a4", OTHER_PORTAL));
+
+    assertEquals(4, queue.drain(0, 0, false, c -> executed.add(c.command())));
+    assertEquals(List.of("a1", "a2", "a3", "a4"), executed);
+  }
+
+  @Test
+  void waitingPortalShouldNotHoldUpOtherPlayers() {
+    queue.enqueue(command(alice, "a1", PORTAL));
+    queue.enqueue(command(alice, "a2", PORTAL));
+    queue.enqueue(command(bob, "b1", OTHER_PORTAL));
+    queue.enqueue(command(alice, "a3", OTHER_PORTAL));
+
+    assertEquals(2, queue.drain(2, 0, false, c -> executed.add(c.command())));
+    assertEquals(List.of("a1", "b1"), executed);
+
+    queue.drain(0, 0, false, c -> executed.add(c.command()));
+    assertEquals(List.of("a1", "b1", "a2", "a3"), executed);
+  }
+
+  @Test
+  void criticalCommandsShouldWaitForEarlierCommandsOfTheirPlayer() {
+    queue.enqueue(command(alice, "a1", PORTAL));
+    queue.enqueue(command(alice, "a2", PORTAL));
+    queue.enqueue(
+        command(alice, "critical", OTHER_PORTAL, PortalConfigComponent.Priority.Critical));
+
+    assertEquals(1, queue.drain(1, 0, false, c -> executed.add(c.command())));
+    assertEquals(List.of("a1"), executed);
+    assertEquals(2, queue.size());
+  }
+
+  @Test
+  void markTickShouldMeasureTimeSincePreviousTick() {
+    assertEquals(0, queue.markTick());
+    now += 33_000_000;
+    assertEquals(33_000_000, queue.markTick());
+    now += 120_000_000;
+    assertEquals(120_000_000, queue.markTick());
+  }
+}
@@ -3,6 +3,7 @@ package studio.hiwire.adminportals.page;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -56,6 +57,9 @@ class PortalConfigurationPageTest {
               null,
               null, // null sound effect ID
               null,
+              null,
+              null,
+              null,
               null);
 
       PortalConfigurationPage page = new PortalConfigurationPage(playerRef, blockRef, config);
@@ -78,6 +82,9 @@ class PortalConfigurationPageTest {
               null,
               "", // explicitly empty sound effect ID
               null,
+              null,
+              null,
+              null,
               null);
 
       PortalConfigurationPage page = new PortalConfigurationPage(playerRef, blockRef, config);
@@ -101,6 +108,9 @@ class PortalConfigurationPageTest {
               null,
               customSound,
               null,
+              null,
+              null,
+              null,
               null);
 
       PortalConfigurationPage page = new PortalConfigurationPage(playerRef, blockRef, config);
@@ -123,6 +133,9 @@ class PortalConfigurationPageTest {
               null, // no commands array - should migrate
               "SFX_Custom_Sound",
               null,
+              null,
+              null,
+              null,
               null);
 
       PortalConfigurationPage page = new PortalConfigurationPage(playerRef, blockRef, config);
@@ -149,7 +162,16 @@ class PortalConfigurationPageTest {
           };
       PortalConfigComponent config =
           new PortalConfigComponent(
-              PortalConfigComponent.Type.Command, null, null, commands, null, null, null);
+              PortalConfigComponent.Type.Command,
+              null,
+              null,
+              commands,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null);
 
       PortalConfigurationPage page = new PortalConfigurationPage(playerRef, blockRef, config);
 
@@ -179,6 +201,9 @@ class PortalConfigurationPageTest {
               new PortalConfigComponent.CommandEntry[0],
               null,
               null,
+              null,
+              null,
+              null,
               null);
 
       PortalConfigurationPage page = new PortalConfigurationPage(playerRef, blockRef, config);
@@ -197,7 +222,16 @@ class PortalConfigurationPageTest {
 
       PortalConfigComponent config =
           new PortalConfigComponent(
-              PortalConfigComponent.Type.Command, null, null, null, null, false, null);
+              PortalConfigComponent.Type.Command,
+              null,
+              null,
+              null,
+              null,
+              false,
+              null,
+              null,
+              null,
+              null);
 
       PortalConfigurationPage page = new PortalConfigurationPage(playerRef, blockRef, config);
 
@@ -213,7 +247,16 @@ class PortalConfigurationPageTest {
 
       PortalConfigComponent config =
           new PortalConfigComponent(
-              PortalConfigComponent.Type.Command, null, null, null, null, null, null);
+              PortalConfigComponent.Type.Command,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null);
 
       PortalConfigurationPage page = new PortalConfigurationPage(playerRef, blockRef, config);
 
@@ -229,7 +272,16 @@ class PortalConfigurationPageTest {
 
       PortalConfigComponent config =
           new PortalConfigComponent(
-              PortalConfigComponent.Type.Command, null, null, null, null, null, false);
+              PortalConfigComponent.Type.Command,
+              null,
+              null,
+              null,
+              null,
+              null,
+              false,
+              null,
+              null,
+              null);
 
       PortalConfigurationPage page = new PortalConfigurationPage(playerRef, blockRef, config);
 
@@ -245,7 +297,16 @@ class PortalConfigurationPageTest {
 
       PortalConfigComponent config =
           new PortalConfigComponent(
-              PortalConfigComponent.Type.Command, null, null, null, null, null, null);
+              PortalConfigComponent.Type.Command,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null);
 
       PortalConfigurationPage page = new PortalConfigurationPage(playerRef, blockRef, config);
 
@@ -254,6 +315,171 @@ class PortalConfigurationPageTest {
     }
   }
 
+  @Test
+  void constructorShouldLoadTeleportDestination() throws Exception {
+    try (MockedStatic<BlockMapMarker> mockedMarker = mockStatic(BlockMapMarker.class)) {
+      mockedMarker.when(BlockMapMarker::getComponentType).thenReturn(markerComponentType);
+
+      PortalConfigComponent config =
+          new PortalConfigComponent(
+              PortalConfigComponent.Type.Teleport,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              new PortalConfigComponent.TeleportDestination("hub", 100, 64.5, -20, 90, 0),
+              null,
+              null);
+
+      PortalConfigurationPage page = new PortalConfigurationPage(playerRef, blockRef, config);
+
+      assertEquals("hub", getPrivateField(page, "currentTeleportWorld"));
+      assertEquals("100", getPrivateField(page, "currentTeleportX"));
+      assertEquals("64.5", getPrivateField(page, "currentTeleportY"));
+      assertEquals("-20", getPrivateField(page, "currentTeleportZ"));
+      assertEquals("90", getPrivateField(page, "currentTeleportYaw"));
+      assertEquals("0", getPrivateField(page, "currentTeleportPitch"));
+    }
+  }
+
+  @Test
+  void constructorShouldLeaveTeleportFieldsEmptyWithoutDestination() throws Exception {
+    try (MockedStatic<BlockMapMarker> mockedMarker = mockStatic(BlockMapMarker.class)) {
+      mockedMarker.when(BlockMapMarker::getComponentType).thenReturn(markerComponentType);
+
+      PortalConfigComponent config =
+          new PortalConfigComponent(
+              PortalConfigComponent.Type.Teleport,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null,
+              null);
+
+      PortalConfigurationPage page = new PortalConfigurationPage(playerRef, blockRef, config);
+
+      assertEquals("", getPrivateField(page, "currentTeleportWorld"));
+      assertEquals("", getPrivateField(page, "currentTeleportX"));
+    }
+  }
+
+  @Test
+  void parseRateLimitShouldDefaultBurstToOneSecond() {
+    assertEquals(new PortalConfigComponent.RateLimit(2.5, 3), parseRateLimit("2.5", ""));
+    assertEquals(new PortalConfigComponent.RateLimit(0.5, 1), parseRateLimit("0.5", null));
+    assertEquals(new PortalConfigComponent.RateLimit(4, 10), parseRateLimit("4", "10"));
+  }
+
+  @Test
+  void parseRateLimitShouldRejectInvalidValues() {
+    assertNull(parseRateLimit("", "5"));
+    assertNull(parseRateLimit("0", "5"));
+    assertNull(parseRateLimit("fast", "5"));
+    assertNull(parseRateLimit("2", "0"));
+    assertNull(parseRateLimit("2", "1.5"));
+    assertNull(parseRateLimit("2", "100000"));
+  }
+
+  @Test
+  void rateLimitShouldBeValidWhenEmptyOrComplete() {
+    assertTrue(isRateLimitValid(null, null));
+    assertTrue(isRateLimitValid(" ", ""));
+    assertTrue(isRateLimitValid("2", ""));
+    assertTrue(isRateLimitValid("2", "5"));
+  }
+
+  @Test
+  void burstWithoutRateShouldBeInvalid() {
+    assertFalse(isRateLimitValid("", "5"));
+    assertFalse(isRateLimitValid(null, "5"));
+    assertFalse(isRateLimitValid("0", "5"));
+  }
+
+  @Test
+  void parseCooldownShouldKeepSecondsAndScope() {
+    assertEquals(new PortalConfigComponent.Cooldown(2.5, false), parseCooldown("2.5", false));
+    assertEquals(new PortalConfigComponent.Cooldown(60, true), parseCooldown(" 60 ", true));
+  }
+
+  @Test
+  void parseCooldownShouldTreatEmptyZeroAndInvalidAsNoCooldown() {
+    assertNull(parseCooldown("", true));
+    assertNull(parseCooldown(null, false));
+    assertNull(parseCooldown("0", true));
+    assertNull(parseCooldown("-5", false));
+    assertNull(parseCooldown("soon", false));
+    assertNull(parseCooldown("100000", false));
+  }
+
+  @Test
+  void emptyDestinationShouldNotCount() {
+    assertFalse(PortalConfigurationPage.hasTeleportDestination(destination("", " ", null, "")));
+  }
+
+  @Test
+  void partlyFilledDestinationShouldBeInvalid() {
+    PortalConfigurationPage.PageData data = destination("", "10", "", "");
+    data.teleportWorld = "world";
+
+    assertTrue(PortalConfigurationPage.hasTeleportDestination(data));
+    assertTrue(
+        PortalConfigurationPage.validateTeleportDestination(data).endsWith("InvalidPosition"));
+  }
+
+  @Test
+  void unparsableRotationShouldBeInvalid() {
+    PortalConfigurationPage.PageData data = destination("", "10", "64", "-3");
+    data.teleportYaw = "north";
+
+    assertTrue(
+        PortalConfigurationPage.validateTeleportDestination(data).endsWith("InvalidRotation"));
+  }
+
+  @Test
+  void completeDestinationShouldBeValid() {
+    PortalConfigurationPage.PageData data = destination("", "10", "64", "-3");
+
+    assertTrue(PortalConfigurationPage.hasTeleportDestination(data));
+    assertNull(PortalConfigurationPage.validateTeleportDestination(data));
+  }
+
+  private static PortalConfigurationPage.PageData destination(
+      String world, String x, String y, String z) {
+    PortalConfigurationPage.PageData data = new PortalConfigurationPage.PageData();
+    data.teleportWorld = world;
+    data.teleportX = x;
+    data.teleportY = y;
+    data.teleportZ = z;
+    return data;
+  }
+
+  private static PortalConfigComponent.Cooldown parseCooldown(String seconds, boolean global) {
+    PortalConfigurationPage.PageData data = new PortalConfigurationPage.PageData();
+    data.cooldownSeconds = seconds;
+    data.cooldownGlobal = global;
+    return PortalConfigurationPage.parseCooldown(data);
+  }
+
+  private static PortalConfigComponent.RateLimit parseRateLimit(String perSecond, String burst) {
+    PortalConfigurationPage.PageData data = new PortalConfigurationPage.PageData();
+    data.rateLimitPerSecond = perSecond;
+    data.rateLimitBurst = burst;
+    return PortalConfigurationPage.parseRateLimit(data);
+  }
+
+  private static boolean isRateLimitValid(String perSecond, String burst) {
+    PortalConfigurationPage.PageData data = new PortalConfigurationPage.PageData();
+    data.rateLimitPerSecond = perSecond;
+    data.rateLimitBurst = burst;
+    return PortalConfigurationPage.isRateLimitValid(data);
+  }
+
   @SuppressWarnings("unchecked")
   private <T> T getPrivateField(Object obj, String fieldName) throws Exception {
     Field field = obj.getClass().getDeclaredField(fieldName);
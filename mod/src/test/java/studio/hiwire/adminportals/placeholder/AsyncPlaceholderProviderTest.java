@@ -0,0 +1,168 @@
+package studio.hiwire.adminportals.placeholder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncPlaceholderProviderTest {
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  private PlaceholderManager placeholderManager;
+
+  @BeforeEach
+  void setup() {
+    placeholderManager = new PlaceholderManager();
+  }
+
+  @Test
+  void shouldRenderAsyncValue() throws Exception {
+    final var lookup = new CompletableFuture<String>();
+    placeholderManager.register(
+        "Rank", PlaceholderProvider.async(Duration.ofSeconds(5), "none", ctx -> lookup));
+    final var template = placeholderManager.compile("rank {Rank}");
+    assertTrue(template.isAsync());
+
+    final var result = template.renderAsync(null, null);
+    assertFalse(result.isDone());
+
+    lookup.complete("admin");
+    assertEquals("rank admin", result.get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldUseFallbackAfterDeadline() throws Exception {
+    final var lookup = new CompletableFuture<String>();
+    placeholderManager.register(
+        "Rank", PlaceholderProvider.async(Duration.ofMillis(20), "none", ctx -> lookup));
+
+    final var result = placeholderManager.compile("rank {Rank}").renderAsync(null, null);
+
+    assertEquals("rank none", result.get(5, TimeUnit.SECONDS));
+    // The provider's own future is left alone
+    assertFalse(lookup.isDone());
+  }
+
+  @Test
+  void timedOutLookupShouldBeRecordedAtTheDeadline() throws Exception {
+    final var lookup = new CompletableFuture<String>();
+    placeholderManager.register(
+        "Rank", PlaceholderProvider.async(Duration.ofMillis(20), "none", ctx -> lookup));
+
+    placeholderManager.compile("rank {Rank}").renderAsync(null, null).get(5, TimeUnit.SECONDS);
+    final var stats = statsOf("Rank");
+    // Recorded by a deadline timer of its own, which may fire just after the fallback was used
+    final var waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (stats.getTimeouts() == 0 && System.nanoTime() < waitUntil) {
+      Thread.onSpinWait();
+    }
+    assertEquals(1, stats.getTimeouts());
+    assertEquals(1, stats.getCount());
+    assertTrue(stats.getMaxNanos() >= TimeUnit.MILLISECONDS.toNanos(17));
+
+    // Completing after the deadline does not record the lookup again
+    lookup.complete("admin");
+    assertEquals(1, stats.getCount());
+  }
+
+  @Test
+  void completedLookupShouldNotCountAsTimedOut() throws Exception {
+    placeholderManager.register(
+        "Rank",
+        PlaceholderProvider.async(
+            Duration.ofSeconds(5), "none", ctx -> CompletableFuture.completedFuture("admin")));
+
+    placeholderManager.compile("rank {Rank}").renderAsync(null, null).get(1, TimeUnit.SECONDS);
+
+    assertEquals(1, statsOf("Rank").getCount());
+    assertEquals(0, statsOf("Rank").getTimeouts());
+  }
+
+  @Test
+  void shouldUseFallbackOnFailure() throws Exception {
+    placeholderManager.register(
+        "Failed",
+        PlaceholderProvider.async(
+            Duration.ofSeconds(5),
+            "x",
+            ctx -> CompletableFuture.failedFuture(new IllegalStateException())));
+    placeholderManager.register(
+        "Thrown",
+        PlaceholderProvider.async(
+            Duration.ofSeconds(5),
+            "y",
+            ctx -> {
+              throw new IllegalStateException();
+            }));
+
+    final var result = placeholderManager.compile("{Failed} {Thrown}").renderAsync(null, null);
+
+    assertEquals("x y", result.get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldResolveSyncProvidersImmediately() throws Exception {
+    final var lookup = new CompletableFuture<String>();
+    placeholderManager.register("Sync", ctx -> "s" + calls.incrementAndGet());
+    placeholderManager.register(
+        "Rank", PlaceholderProvider.async(Duration.ofSeconds(5), "", ctx -> lookup));
+
+    final var result = placeholderManager.compile("{Sync} {Rank}").renderAsync(null, null);
+    assertEquals(1, calls.get());
+
+    lookup.complete("admin");
+    assertEquals("s1 admin", result.get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void lookupShouldStartOncePerActivation() throws Exception {
+    placeholderManager.register(
+        "Rank",
+        PlaceholderProvider.async(
+            Duration.ofSeconds(5),
+            "",
+            ctx -> CompletableFuture.completedFuture("r" + calls.incrementAndGet())));
+    final var first = placeholderManager.compile("a {Rank} {Rank}");
+    final var second = placeholderManager.compile("b {Rank}");
+
+    try (final var memo = PlaceholderMemo.acquire()) {
+      assertEquals("a r1 r1", first.renderAsync(null, memo).get(1, TimeUnit.SECONDS));
+      assertEquals("b r1", second.renderAsync(null, memo).get(1, TimeUnit.SECONDS));
+    }
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void synchronousResolveShouldNotWait() {
+    final var lookup = new CompletableFuture<String>();
+    placeholderManager.register(
+        "Rank", PlaceholderProvider.async(Duration.ofSeconds(5), "none", ctx -> lookup));
+
+    assertEquals("rank none", placeholderManager.compile("rank {Rank}").render(null));
+    lookup.complete("admin");
+    assertEquals("rank admin", placeholderManager.compile("rank {Rank}").render(null));
+  }
+
+  @Test
+  void templateWithoutAsyncProvidersShouldRenderSynchronously() {
+    placeholderManager.register("Sync", ctx -> "s");
+    final var template = placeholderManager.compile("{Sync}");
+
+    assertFalse(template.isAsync());
+    assertEquals("s", template.renderAsync(null, null).getNow(null));
+  }
+
+  private PlaceholderStats statsOf(String name) {
+    return placeholderManager.getStats().stream()
+        .filter(stats -> stats.getName().equals(name))
+        .findFirst()
+        .orElseThrow();
+  }
+}
@@ -0,0 +1,162 @@
+package studio.hiwire.adminportals.placeholder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PlaceholderFilterTest {
+
+  private PlaceholderManager placeholderManager;
+  private PlaceholderContext context;
+
+  @BeforeEach
+  void setup() {
+    placeholderManager = new PlaceholderManager();
+    placeholderManager.register("Name", ctx -> "Steve");
+    placeholderManager.register("Empty", ctx -> "");
+    placeholderManager.register("Health", ctx -> "17.5");
+    context =
+        new PlaceholderContext(
+            null, null, null, null, null, new Vector3i(-7, 64, 3), null, null, null);
+  }
+
+  private String render(String input) {
+    return placeholderManager.compile(input).render(context);
+  }
+
+  @Test
+  void shouldApplyStringFilters() {
+    assertEquals("steve STEVE", render("{Name|lower} {Name|upper}"));
+    assertEquals("nobody", render("{Empty|default:nobody}"));
+    assertEquals("Steve", render("{Name|default:nobody}"));
+  }
+
+  @Test
+  void shouldApplyIntegerArithmetic() {
+    assertEquals("tp -7 66 3", render("tp {PosX} {PosY|add:2} {PosZ}"));
+    assertEquals("-12 -14 -4", render("{PosX|sub:5} {PosX|mul:2} {PosX|div:2}"));
+  }
+
+  @Test
+  void shouldApplyDecimalArithmetic() {
+    assertEquals("20", render("{Health|add:2.5}"));
+    assertEquals("-6.5", render("{PosX|add:0.5}"));
+    assertEquals("5.833333", render("{Health|div:3}"));
+  }
+
+  @Test
+  void shouldChainFiltersInOrder() {
+    assertEquals("64", render("{PosY|add:2|sub:2}"));
+    assertEquals("STEVE", render("{Empty|default:steve|upper}"));
+  }
+
+  @Test
+  void arithmeticShouldKeepNonNumericValues() {
+    assertEquals("Steve", render("{Name|add:1}"));
+  }
+
+  @Test
+  void integerOverflowShouldUseDecimalArithmetic() {
+    placeholderManager.register("Min", PlaceholderProvider.constant(Long.toString(Long.MIN_VALUE)));
+
+    assertEquals("9223372036854775808", render("{Min|div:-1}"));
+    assertEquals("-18446744073709551616", render("{Min|mul:2}"));
+    assertEquals("-9223372036854775809", render("{Min|sub:1}"));
+  }
+
+  @Test
+  void argumentsOutOfRangeShouldNotParse() {
+    assertNull(PlaceholderFilter.parse("mul:1e999999999"));
+    assertNull(PlaceholderFilter.parse("add:1e-999999999"));
+    assertNull(PlaceholderFilter.parse("mul:1e34"));
+    assertEquals("{PosY|mul:1e999999999}", render("{PosY|mul:1e999999999}"));
+    assertEquals("64" + "0".repeat(32), render("{PosY|mul:1e32}"));
+  }
+
+  @Test
+  void valuesAndResultsOutOfRangeShouldBeKept() {
+    placeholderManager.register("Huge", PlaceholderProvider.constant("1e999999999"));
+    placeholderManager.register("Big", PlaceholderProvider.constant("5e32"));
+
+    assertEquals("1e999999999", render("{Huge|add:1}"));
+    assertEquals("5e32", render("{Big|mul:100}"));
+    assertEquals("5" + "0".repeat(33), render("{Big|mul:10}"));
+  }
+
+  @Test
+  void invalidFiltersShouldKeepThePlaceholder() {
+    assertEquals(
+        "{Name|shout} {PosY|add:x} {PosY|div:0} {Name|}",
+        render("{Name|shout} {PosY|add:x} {PosY|div:0} {Name|}"));
+    assertEquals(
+        Set.of("Name|shout", "Missing|lower"),
+        placeholderManager.findMissingPlaceholders("{Name|shout} {Missing|lower} {Name|lower}"));
+  }
+
+  @Test
+  void shouldApplyFiltersToConstants() {
+    placeholderManager.register("Server", PlaceholderProvider.constant("Hub"));
+    final var template = placeholderManager.compile("join {Server|lower}");
+
+    assertTrue(template.isLiteral());
+    assertEquals("join hub", template.render(null));
+  }
+
+  @Test
+  void filteredAndPlainPlaceholderShouldShareOneResolve() {
+    final var calls = new AtomicInteger();
+    placeholderManager.register("Counted", ctx -> "v" + calls.incrementAndGet());
+    final var template = placeholderManager.compile("{Counted} {Counted|upper}");
+
+    try (final var memo = PlaceholderMemo.acquire()) {
+      assertEquals("v1 V1", template.render(context, memo));
+    }
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void shouldApplyFiltersToAsyncValues() throws Exception {
+    placeholderManager.register(
+        "Rank",
+        PlaceholderProvider.async(
+            Duration.ofSeconds(5), "", ctx -> CompletableFuture.completedFuture("Admin")));
+
+    assertEquals(
+        "admin 66",
+        placeholderManager
+            .compile("{Rank|lower} {PosY|add:2}")
+            .renderAsync(context, null)
+            .get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void nullValuesShouldBeFilteredAsEmpty() throws Exception {
+    placeholderManager.register("Null", ctx -> null);
+    placeholderManager.register(
+        "NullConstant", PlaceholderProvider.scoped(PlaceholderScope.Constant, ctx -> null));
+
+    assertEquals("[] [nobody]", render("[{Null|lower}] [{Null|default:nobody}]"));
+    assertEquals("[] [nobody]", render("[{Null|add:1}] [{NullConstant|default:nobody}]"));
+    assertEquals(
+        "nobody",
+        placeholderManager
+            .compile("{Null|upper|default:nobody}")
+            .renderAsync(context, null)
+            .get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void unknownFilterChainShouldNotParse() {
+    assertNull(PlaceholderFilter.parse("lower|nope"));
+    assertNull(PlaceholderFilter.parse("lower:x"));
+  }
+}
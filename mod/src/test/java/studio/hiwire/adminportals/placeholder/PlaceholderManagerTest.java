@@ -2,6 +2,7 @@ package studio.hiwire.adminportals.placeholder;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -10,7 +11,13 @@ import static org.mockito.Mockito.when;
 import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
+import java.util.ArrayList;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -37,10 +44,9 @@ class PlaceholderManagerTest {
 
     Vector3i position = new Vector3i(posX, posY, posZ);
 
-    context = mock(PlaceholderContext.class);
-    when(context.playerRef()).thenReturn(playerRef);
-    when(context.world()).thenReturn(world);
-    when(context.pos()).thenReturn(position);
+    // A real record: inline-mocking it would instrument the accessors for all other tests
+    context =
+        new PlaceholderContext(world, null, null, null, null, position, null, playerRef, null);
 
     placeholderManager = new PlaceholderManager();
   }
@@ -135,4 +141,148 @@ class PlaceholderManagerTest {
 
     assertEquals("test customValue", result);
   }
+
+  @Test
+  void compileShouldRenderSameAsProcess() {
+    String input = "tp {PlayerUsername} {PosX} {PosY} {PosZ} {UnknownPlaceholder}";
+
+    PlaceholderTemplate template = placeholderManager.compile(input);
+
+    assertFalse(template.isLiteral());
+    assertEquals(placeholderManager.process(input, context), template.render(context));
+  }
+
+  @Test
+  void compileShouldReturnSourceForLiteralTemplate() {
+    String input = "say {UnknownPlaceholder} hello";
+
+    PlaceholderTemplate template = placeholderManager.compile(input);
+
+    assertTrue(template.isLiteral());
+    assertSame(input, template.render(context));
+  }
+
+  @Test
+  void compiledTemplateShouldBecomeStaleOnRegistryChange() {
+    PlaceholderTemplate template = placeholderManager.compile("test {Custom}");
+    assertTrue(placeholderManager.isCurrent(template));
+
+    placeholderManager.register("Custom", ctx -> "customValue");
+
+    assertFalse(placeholderManager.isCurrent(template));
+    assertEquals("test customValue", placeholderManager.compile("test {Custom}").render(context));
+  }
+
+  @Test
+  void registerAllShouldPublishAllPlaceholdersInOneChange() {
+    final var version = placeholderManager.getVersion();
+
+    placeholderManager.registerAll(Map.of("A", ctx -> "a", "B", ctx -> "b"));
+
+    assertTrue(placeholderManager.isRegistered("A"));
+    assertTrue(placeholderManager.isRegistered("B"));
+    assertEquals(version + 1, placeholderManager.getVersion());
+  }
+
+  @Test
+  void registerAllShouldRegisterNothingOnDuplicate() {
+    final var version = placeholderManager.getVersion();
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> placeholderManager.registerAll(Map.of("New", ctx -> "", "PosX", ctx -> "")));
+
+    assertFalse(placeholderManager.isRegistered("New"));
+    assertEquals(version, placeholderManager.getVersion());
+  }
+
+  @Test
+  void registeredNamesShouldBeASnapshot() {
+    final var names = placeholderManager.getRegisteredNames();
+
+    placeholderManager.register("Later", ctx -> "");
+
+    assertFalse(names.contains("Later"));
+    assertTrue(placeholderManager.getRegisteredNames().contains("Later"));
+  }
+
+  @Test
+  void concurrentRegistrationsShouldNotBeLost() throws Exception {
+    final var threads = 8;
+    final var perThread = 200;
+    final var executor = Executors.newFixedThreadPool(threads);
+    try {
+      final var start = new CountDownLatch(1);
+      final var futures = new ArrayList<Future<?>>();
+      for (int t = 0; t < threads; t++) {
+        final var thread = t;
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (int i = 0; i < perThread; i++) {
+                    placeholderManager.register("P" + thread + "_" + i, ctx -> "");
+                    placeholderManager.compile("{PosX}").render(context);
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    for (int t = 0; t < threads; t++) {
+      for (int i = 0; i < perThread; i++) {
+        assertTrue(placeholderManager.isRegistered("P" + t + "_" + i));
+      }
+    }
+  }
+
+  @Test
+  void appendUuidShouldMatchToString() {
+    for (UUID uuid : new UUID[] {playerUuid, UUID.randomUUID(), new UUID(0, 0), new UUID(-1, -1)}) {
+      final var target = new StringBuilder();
+      PlaceholderManager.appendUuid(target, uuid);
+      assertEquals(uuid.toString(), target.toString());
+    }
+  }
+
+  @Test
+  void shouldRecordResolveStatsPerPlaceholder() {
+    placeholderManager.register("Slow", ctx -> "s");
+    placeholderManager.register(
+        "Cached", PlaceholderProvider.scoped(PlaceholderScope.Server, ctx -> "c"));
+
+    placeholderManager.process("{Slow} {Slow} {Cached} {Cached}", context);
+
+    final var stats = statsOf("Slow");
+    assertEquals(2, stats.getCount());
+    assertEquals("AdminPortals", stats.getOwner());
+    assertTrue(stats.getMaxNanos() >= stats.getPercentileNanos(50));
+    // Cache hits are not provider calls
+    assertEquals(1, statsOf("Cached").getCount());
+    // Appending defaults are timed as well
+    placeholderManager.process("{PosX}", context);
+    assertEquals(1, statsOf("PosX").getCount());
+  }
+
+  @Test
+  void unregisterShouldDropStats() {
+    placeholderManager.register("Temp", ctx -> "t");
+    placeholderManager.unregister("Temp");
+
+    assertTrue(
+        placeholderManager.getStats().stream().noneMatch(stats -> stats.getName().equals("Temp")));
+  }
+
+  private PlaceholderStats statsOf(String name) {
+    return placeholderManager.getStats().stream()
+        .filter(stats -> stats.getName().equals(name))
+        .findFirst()
+        .orElseThrow();
+  }
 }
@@ -0,0 +1,89 @@
+package studio.hiwire.adminportals.placeholder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PlaceholderMemoTest {
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  private PlaceholderManager placeholderManager;
+
+  @BeforeEach
+  void setup() {
+    placeholderManager = new PlaceholderManager();
+  }
+
+  @Test
+  void cacheableProviderShouldResolveOncePerActivation() {
+    placeholderManager.register("Counted", ctx -> "v" + calls.incrementAndGet());
+    final var first = placeholderManager.compile("a {Counted} {Counted}");
+    final var second = placeholderManager.compile("b {Counted}");
+
+    try (final var memo = PlaceholderMemo.acquire()) {
+      assertEquals("a v1 v1", first.render(null, memo));
+      assertEquals("b v1", second.render(null, memo));
+    }
+    assertEquals(1, calls.get());
+
+    try (final var memo = PlaceholderMemo.acquire()) {
+      assertEquals("b v2", second.render(null, memo));
+    }
+  }
+
+  @Test
+  void uncachedProviderShouldResolveEveryTime() {
+    placeholderManager.register(
+        "Random", PlaceholderProvider.uncached(ctx -> "v" + calls.incrementAndGet()));
+    final var template = placeholderManager.compile("{Random} {Random}");
+
+    try (final var memo = PlaceholderMemo.acquire()) {
+      assertEquals("v1 v2", template.render(null, memo));
+      assertEquals("v3 v4", template.render(null, memo));
+    }
+  }
+
+  @Test
+  void renderWithoutMemoShouldNotCache() {
+    placeholderManager.register("Counted", ctx -> "v" + calls.incrementAndGet());
+    final var template = placeholderManager.compile("{Counted} {Counted}");
+
+    assertEquals("v1 v2", template.render(null));
+  }
+
+  @Test
+  void nestedAcquireShouldReturnSeparateMemo() {
+    try (final var outer = PlaceholderMemo.acquire()) {
+      try (final var inner = PlaceholderMemo.acquire()) {
+        assertNotSame(outer, inner);
+      }
+    }
+
+    final var first = PlaceholderMemo.acquire();
+    first.close();
+    final var second = PlaceholderMemo.acquire();
+    second.close();
+    assertSame(first, second);
+  }
+
+  @Test
+  void memoShouldGrowBeyondInitialCapacity() {
+    final var template = new StringBuilder();
+    for (int i = 0; i < 20; i++) {
+      final var value = String.valueOf(i);
+      placeholderManager.register("P" + i, ctx -> value);
+      template.append('{').append("P").append(i).append('}');
+    }
+    final var compiled = placeholderManager.compile(template.toString());
+
+    try (final var memo = PlaceholderMemo.acquire()) {
+      assertEquals("012345678910111213141516171819", compiled.render(null, memo));
+      assertEquals("012345678910111213141516171819", compiled.render(null, memo));
+    }
+  }
+}
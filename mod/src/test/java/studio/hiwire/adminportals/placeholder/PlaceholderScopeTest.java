@@ -0,0 +1,115 @@
+package studio.hiwire.adminportals.placeholder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PlaceholderScopeTest {
+
+  private final AtomicInteger calls = new AtomicInteger();
+  private final PlaceholderProvider counting = ctx -> "v" + calls.incrementAndGet();
+
+  private PlaceholderManager placeholderManager;
+
+  @BeforeEach
+  void setup() {
+    placeholderManager = new PlaceholderManager();
+  }
+
+  private static PlaceholderContext context(String worldName, UUID playerUuid) {
+    PlayerRef playerRef = mock(PlayerRef.class);
+    when(playerRef.getUuid()).thenReturn(playerUuid);
+    World world = mock(World.class);
+    when(world.getName()).thenReturn(worldName);
+
+    return new PlaceholderContext(world, null, null, null, null, null, null, playerRef, null);
+  }
+
+  @Test
+  void constantShouldBeFoldedIntoTemplate() {
+    placeholderManager.register("ServerName", PlaceholderProvider.constant("Hub"));
+
+    final var template = placeholderManager.compile("say Welcome to {ServerName}!");
+
+    assertTrue(template.isLiteral());
+    assertEquals("say Welcome to Hub!", template.render(null));
+  }
+
+  @Test
+  void constantShouldBeFoldedBetweenOtherPlaceholders() {
+    placeholderManager.register("ServerName", PlaceholderProvider.constant("Hub"));
+    placeholderManager.register("Name", ctx -> "Steve");
+
+    final var template = placeholderManager.compile("{Name}@{ServerName}:{Name}");
+
+    assertEquals("Steve@Hub:Steve", template.render(null));
+  }
+
+  @Test
+  void serverScopeShouldBeCachedAcrossActivations() {
+    placeholderManager.register(
+        "Motd", PlaceholderProvider.scoped(PlaceholderScope.Server, counting));
+    final var template = placeholderManager.compile("{Motd}");
+
+    assertEquals("v1", template.render(context("a", UUID.randomUUID())));
+    assertEquals("v1", template.render(context("b", UUID.randomUUID())));
+  }
+
+  @Test
+  void worldAndPlayerScopesShouldBeCachedPerKey() {
+    placeholderManager.register(
+        "PerWorld", PlaceholderProvider.scoped(PlaceholderScope.World, counting));
+    final var perWorld = placeholderManager.compile("{PerWorld}");
+    final var alice = UUID.randomUUID();
+
+    assertEquals("v1", perWorld.render(context("a", alice)));
+    assertEquals("v2", perWorld.render(context("b", alice)));
+    assertEquals("v1", perWorld.render(context("a", UUID.randomUUID())));
+
+    placeholderManager.register(
+        "PerPlayer", PlaceholderProvider.scoped(PlaceholderScope.Player, counting));
+    final var perPlayer = placeholderManager.compile("{PerPlayer}");
+
+    assertEquals("v3", perPlayer.render(context("a", alice)));
+    assertEquals("v3", perPlayer.render(context("b", alice)));
+    assertEquals("v4", perPlayer.render(context("a", UUID.randomUUID())));
+  }
+
+  @Test
+  void reregistrationShouldDropCachedValues() {
+    placeholderManager.register(
+        "Motd", PlaceholderProvider.scoped(PlaceholderScope.Server, counting));
+    assertEquals("v1", placeholderManager.compile("{Motd}").render(null));
+
+    placeholderManager.unregister("Motd");
+    placeholderManager.register(
+        "Motd", PlaceholderProvider.scoped(PlaceholderScope.Server, counting));
+
+    assertEquals("v2", placeholderManager.compile("{Motd}").render(null));
+  }
+
+  @Test
+  void cachedValueShouldExpireAfterTtl() {
+    final var now = new AtomicLong();
+    final var provider =
+        new CachingPlaceholderProvider(
+            PlaceholderProvider.scoped(PlaceholderScope.Server, Duration.ofSeconds(5), counting),
+            now::get);
+
+    assertEquals("v1", provider.resolve(null));
+    now.set(Duration.ofSeconds(4).toNanos());
+    assertEquals("v1", provider.resolve(null));
+    now.set(Duration.ofSeconds(5).toNanos());
+    assertEquals("v2", provider.resolve(null));
+  }
+}
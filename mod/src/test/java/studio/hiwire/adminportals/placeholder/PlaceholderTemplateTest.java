@@ -0,0 +1,192 @@
+package studio.hiwire.adminportals.placeholder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.portal.ResolvedPortalConfig;
+
+class PlaceholderTemplateTest {
+
+  private static final int WARMUP_ITERATIONS = 20_000;
+  private static final int MEASURED_ITERATIONS = 10_000;
+
+  private PlaceholderManager placeholderManager;
+
+  @BeforeEach
+  void setup() {
+    placeholderManager = new PlaceholderManager();
+    placeholderManager.register("Name", ctx -> "Steve");
+    placeholderManager.register("Target", ctx -> "spawn");
+  }
+
+  /** Returns the average number of bytes allocated by the current thread per call. */
+  private static double allocatedBytesPerCall(Supplier<String> call) {
+    final var threadBean = ManagementFactory.getThreadMXBean();
+    assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+    final var allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+    assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+    allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+    final var threadId = Thread.currentThread().threadId();
+    int sink = 0;
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      sink += call.get().length();
+    }
+
+    final var before = allocationBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+      sink += call.get().length();
+    }
+    final var after = allocationBean.getThreadAllocatedBytes(threadId);
+
+    assertTrue(sink > 0);
+    return (double) (after - before) / MEASURED_ITERATIONS;
+  }
+
+  @Test
+  void literalTemplateShouldRenderWithoutContext() {
+    final var template = placeholderManager.compile("spawn {Unknown}");
+
+    assertTrue(template.isLiteral());
+    assertSame(template.getSource(), template.render(null));
+  }
+
+  @Test
+  void literalTemplateShouldNotAllocate() {
+    final var template = placeholderManager.compile("tp @p 0 100 0");
+
+    assertEquals(0.0, allocatedBytesPerCall(() -> template.render(null)), 0.5);
+  }
+
+  @Test
+  void processShouldReturnLiteralInputWithoutAllocating() {
+    final var command = "tp @p 0 100 0";
+
+    assertSame(command, placeholderManager.process(command, null));
+    assertEquals(0.0, allocatedBytesPerCall(() -> placeholderManager.process(command, null)), 0.5);
+  }
+
+  @Test
+  void compiledTemplateShouldOnlyAllocateTheResult() {
+    final var template = placeholderManager.compile("warp {Name} {Target}");
+    final var rendered = template.render(null);
+    assertEquals("warp Steve spawn", rendered);
+
+    // String header and its byte[] (header + compact Latin-1 content), with slack for alignment
+    final var resultSize = 24 + 16 + rendered.length();
+    assertTrue(allocatedBytesPerCall(() -> template.render(null)) <= resultSize + 16);
+  }
+
+  @Test
+  void nestedRenderShouldNotCorruptOuterResult() {
+    final var inner = placeholderManager.compile("{Name}-{Target}");
+    placeholderManager.register("Inner", ctx -> inner.render(ctx));
+    final var outer = placeholderManager.compile("say {Name} {Inner} done");
+
+    assertEquals("say Steve Steve-spawn done", outer.render(null));
+  }
+
+  @Test
+  void coordinatePlaceholdersShouldAppendWithoutIntermediateStrings() {
+    final var context =
+        new PlaceholderContext(
+            null, null, null, null, null, new Vector3i(-120, 64, 3000), null, null, null);
+    final var template = placeholderManager.compile("tp @p {PosX} {PosY} {PosZ}");
+    final var rendered = template.render(context);
+    assertEquals("tp @p -120 64 3000", rendered);
+
+    final var resultSize = 24 + 16 + rendered.length();
+    assertTrue(allocatedBytesPerCall(() -> template.render(context)) <= resultSize + 16);
+  }
+
+  @Test
+  void literalPortalShouldRenderWithoutAllocating() {
+    final var config =
+        ResolvedPortalConfig.of(
+            new PortalConfigComponent(
+                PortalConfigComponent.Type.Command,
+                null,
+                null,
+                new PortalConfigComponent.CommandEntry[] {
+                  new PortalConfigComponent.CommandEntry(
+                      "tp @p 0 100 0", PortalConfigComponent.CommandSender.Server),
+                  new PortalConfigComponent.CommandEntry(
+                      "spawn {Unknown}", PortalConfigComponent.CommandSender.Server)
+                },
+                null,
+                null,
+                null,
+                null,
+                null,
+                null),
+            placeholderManager);
+    final var commands = config.getCommands();
+
+    // Rendered the way AdminPortalInteraction does it, without a context or memo; only the queued
+    // commands are allocated for such a portal
+    final Supplier<String> activation =
+        () -> {
+          String last = null;
+          for (int i = 0; i < commands.size(); i++) {
+            assertTrue(commands.get(i).literal());
+            last = commands.get(i).render(null, null);
+          }
+          return last;
+        };
+
+    assertEquals(0.0, allocatedBytesPerCall(activation), 0.5);
+  }
+
+  @Test
+  void activationShouldOnlyAllocateTheContextAndResults() {
+    final var pos = new Vector3i(-120, 64, 3000);
+    final var warp = placeholderManager.compile("warp {Name} {Target}");
+    final var teleport = placeholderManager.compile("tp {Name} {PosX} {PosY} {PosZ}");
+
+    // Set up the way AdminPortalInteraction does for a portal with two compiled commands. Not
+    // allocation-free by design, the context is not reused as async lookups may outlive the
+    // activation
+    final Supplier<String> activation =
+        () -> {
+          final var context =
+              new PlaceholderContext(null, null, null, null, null, pos, null, null, null);
+          try (var memo = PlaceholderMemo.acquire()) {
+            final var first = warp.render(context, memo);
+            return first.length() > 0 ? teleport.render(context, memo) : first;
+          }
+        };
+    assertEquals("tp Steve -120 64 3000", activation.get());
+
+    // The nine-field record without compressed references, and both results
+    final var contextSize = 16 + 9 * 8;
+    final var resultsSize = 2 * (24 + 16 + 21);
+    assertTrue(allocatedBytesPerCall(activation) <= contextSize + resultsSize + 16);
+  }
+
+  @Test
+  void stringProvidersShouldStillWorkThroughAdapter() {
+    final var template = placeholderManager.compile("{Name}");
+    final var target = new StringBuilder("> ");
+
+    PlaceholderProvider provider = ctx -> "Steve";
+    provider.appendTo(target, null);
+
+    assertEquals("Steve", template.render(null));
+    assertEquals("> Steve", target.toString());
+  }
+
+  @Test
+  void appendingProviderShouldResolveToString() {
+    AppendingPlaceholderProvider provider = (target, ctx) -> target.append(42).append('!');
+
+    assertEquals("42!", provider.resolve(null));
+  }
+}
@@ -0,0 +1,177 @@
+package studio.hiwire.adminportals.portal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hypixel.hytale.math.vector.Vector3i;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.placeholder.PlaceholderContext;
+import studio.hiwire.adminportals.placeholder.PlaceholderManager;
+import studio.hiwire.adminportals.placeholder.PlaceholderProvider;
+
+/**
+ * Compares turning the commands of a placeholder-free portal into the strings handed to the
+ * command manager, once per activation: through {@link ResolvedPortalConfig.Command#render} the
+ * way {@code AdminPortalInteraction} does it, and through the regex based {@code
+ * PlaceholderManager.process} that ran for every command before commands were compiled.
+ *
+ * <p>Only runs when the system property {@code adminportals.benchmark} is {@code true}, e.g. {@code
+ * ./gradlew test -Dadminportals.benchmark=true --tests '*LiteralCommandBenchmark'}. This is a
+ * plain timing loop, not a JMH harness, so compare the two rows of one run with each other only.
+ */
+@EnabledIfSystemProperty(named = "adminportals.benchmark", matches = "true")
+class LiteralCommandBenchmark {
+
+  private static final String[] COMMANDS = {
+    "give @p Weapon_Sword_Iron 1", "effect @p speed 30 1", "tp @p 0 100 0"
+  };
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 5;
+  private static final int ITERATIONS = 1_000_000;
+
+  // The placeholder resolution before commands were compiled, unchanged
+  private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{([^}]+)}");
+  private final Map<String, PlaceholderProvider> placeholders =
+      Map.of("Name", ctx -> "Steve", "Target", ctx -> "spawn");
+
+  private final Vector3i pos = new Vector3i(-120, 64, 3000);
+  // Shared by both paths, so neither measures the array holding the results
+  private final String[] rendered = new String[COMMANDS.length];
+  private PortalConfigComponent component;
+  private ResolvedPortalConfig config;
+
+  @BeforeEach
+  void setup() {
+    final var entries = new PortalConfigComponent.CommandEntry[COMMANDS.length];
+    for (int i = 0; i < COMMANDS.length; i++) {
+      entries[i] =
+          new PortalConfigComponent.CommandEntry(
+              COMMANDS[i], PortalConfigComponent.CommandSender.Server);
+    }
+    component =
+        new PortalConfigComponent(
+            PortalConfigComponent.Type.Command,
+            null,
+            null,
+            entries,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null);
+
+    config = ResolvedPortalConfig.of(component, new PlaceholderManager());
+  }
+
+  @Test
+  void literalCommands() {
+    assertEquals(String.join("\n", COMMANDS), String.join("\n", activateRegex()));
+    assertEquals(String.join("\n", COMMANDS), String.join("\n", activateLiteral()));
+
+    for (int round = 0; round < WARMUP_ROUNDS; round++) {
+      measure(this::activateRegex);
+      measure(this::activateLiteral);
+    }
+
+    final var regex = new double[2];
+    final var literal = new double[2];
+    for (int round = 0; round < MEASURED_ROUNDS; round++) {
+      add(regex, measure(this::activateRegex));
+      add(literal, measure(this::activateLiteral));
+    }
+
+    report("previous process (regex per command)", regex);
+    report("literal fast path (Command.render)", literal);
+  }
+
+  // AdminPortalInteraction: no context is built for literal commands, each is rendered as is
+  private String[] activateLiteral() {
+    final var commands = config.getCommands();
+    for (int i = 0; i < commands.size(); i++) {
+      if (!commands.get(i).literal()) {
+        throw new IllegalStateException("benchmark commands must be literal");
+      }
+    }
+    for (int i = 0; i < commands.size(); i++) {
+      rendered[i] = commands.get(i).render(null, null);
+    }
+    return rendered;
+  }
+
+  // The previous activation: a context per activation, then process for each command entry
+  private String[] activateRegex() {
+    final var context =
+        new PlaceholderContext(null, null, null, null, null, pos, null, null, config);
+    final var entries = component.getCommands();
+    for (int i = 0; i < entries.length; i++) {
+      rendered[i] = process(entries[i].getCommand(), context);
+    }
+    return rendered;
+  }
+
+  private String process(String input, PlaceholderContext context) {
+    if (input.isEmpty()) {
+      return input;
+    }
+
+    Matcher matcher = PLACEHOLDER_PATTERN.matcher(input);
+    StringBuilder result = new StringBuilder();
+
+    while (matcher.find()) {
+      String placeholderName = matcher.group(1);
+      PlaceholderProvider provider = placeholders.get(placeholderName);
+
+      String replacement = provider != null ? provider.resolve(context) : matcher.group(0);
+
+      matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+    }
+    matcher.appendTail(result);
+
+    return result.toString();
+  }
+
+  /** Returns the nanoseconds and allocated bytes per activation of one round. */
+  private static double[] measure(Supplier<String[]> activation) {
+    final var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    final var threadId = Thread.currentThread().threadId();
+
+    long sink = 0;
+    final var bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+    final var start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      sink += activation.get()[0].length();
+    }
+    final var nanos = System.nanoTime() - start;
+    final var bytes = threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+    assertTrue(sink > 0);
+    return new double[] {(double) nanos / ITERATIONS, (double) bytes / ITERATIONS};
+  }
+
+  private static void add(double[] total, double[] round) {
+    total[0] += round[0] / MEASURED_ROUNDS;
+    total[1] += round[1] / MEASURED_ROUNDS;
+  }
+
+  private static void report(String name, double[] result) {
+    System.out.printf(
+        Locale.ROOT,
+        "%-40s %8.1f ns/activation %8.1f B/activation (%d commands, %s %s)%n",
+        name,
+        result[0],
+        result[1],
+        COMMANDS.length,
+        System.getProperty("java.vm.name"),
+        Runtime.version());
+  }
+}
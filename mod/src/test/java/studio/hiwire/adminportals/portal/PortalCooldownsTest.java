@@ -0,0 +1,191 @@
+package studio.hiwire.adminportals.portal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+class PortalCooldownsTest {
+
+  private static final long PORTAL = BlockPositionKey.pack(10, 64, 20);
+  private static final long OTHER_PORTAL = BlockPositionKey.pack(40, 64, 20);
+  private static final PortalConfigComponent.Cooldown TWO_SECONDS =
+      new PortalConfigComponent.Cooldown(2, false);
+  private static final PortalConfigComponent.Cooldown TWO_SECONDS_GLOBAL =
+      new PortalConfigComponent.Cooldown(2, true);
+
+  private long now;
+  private PortalCooldowns cooldowns;
+  private UUID alice;
+  private UUID bob;
+
+  @BeforeEach
+  void setup() {
+    now = TimeUnit.HOURS.toNanos(1);
+    cooldowns = new PortalCooldowns(() -> now);
+    alice = UUID.randomUUID();
+    bob = UUID.randomUUID();
+  }
+
+  private void advanceMillis(long millis) {
+    now += TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  @Test
+  void shouldReportRemainingTimeUntilCooldownEnds() {
+    assertEquals(0, cooldowns.remainingNanos(alice, PORTAL, TWO_SECONDS));
+    cooldowns.start(alice, PORTAL, TWO_SECONDS);
+
+    assertEquals(TimeUnit.SECONDS.toNanos(2), cooldowns.remainingNanos(alice, PORTAL, TWO_SECONDS));
+    advanceMillis(1_999);
+    assertEquals(
+        TimeUnit.MILLISECONDS.toNanos(1), cooldowns.remainingNanos(alice, PORTAL, TWO_SECONDS));
+    advanceMillis(1);
+    assertEquals(0, cooldowns.remainingNanos(alice, PORTAL, TWO_SECONDS));
+  }
+
+  @Test
+  void cooldownsShouldBePerPlayerAndPortal() {
+    cooldowns.start(alice, PORTAL, TWO_SECONDS);
+
+    assertEquals(0, cooldowns.remainingNanos(bob, PORTAL, TWO_SECONDS));
+    assertEquals(0, cooldowns.remainingNanos(alice, OTHER_PORTAL, TWO_SECONDS));
+  }
+
+  @Test
+  void globalCooldownShouldBeSharedByGlobalPortals() {
+    cooldowns.start(alice, PORTAL, TWO_SECONDS_GLOBAL);
+
+    assertTrue(cooldowns.remainingNanos(alice, OTHER_PORTAL, TWO_SECONDS_GLOBAL) > 0);
+    assertEquals(0, cooldowns.remainingNanos(alice, OTHER_PORTAL, TWO_SECONDS));
+    assertEquals(0, cooldowns.remainingNanos(bob, OTHER_PORTAL, TWO_SECONDS_GLOBAL));
+  }
+
+  @Test
+  void zeroSecondsShouldNotStartCooldown() {
+    final var none = new PortalConfigComponent.Cooldown(0, false);
+    cooldowns.start(alice, PORTAL, none);
+
+    assertEquals(0, cooldowns.remainingNanos(alice, PORTAL, none));
+    assertEquals(0, cooldowns.size());
+  }
+
+  @Test
+  void expiredCooldownsShouldBePurgedAsTheirSlotComesDue() {
+    cooldowns.start(alice, PORTAL, new PortalConfigComponent.Cooldown(1, false));
+    cooldowns.start(bob, PORTAL, new PortalConfigComponent.Cooldown(10, false));
+
+    advanceMillis(1_250);
+    cooldowns.remainingNanos(alice, PORTAL, TWO_SECONDS);
+    assertEquals(1, cooldowns.size());
+
+    advanceMillis(9_000);
+    cooldowns.remainingNanos(alice, PORTAL, TWO_SECONDS);
+    assertEquals(0, cooldowns.size());
+  }
+
+  @Test
+  void cooldownsLongerThanOneTurnOfTheWheelShouldBeKept() {
+    final var fiveMinutes = new PortalConfigComponent.Cooldown(300, false);
+    cooldowns.start(alice, PORTAL, fiveMinutes);
+
+    for (int i = 0; i < 299; i++) {
+      advanceMillis(1_000);
+      assertTrue(cooldowns.remainingNanos(alice, PORTAL, fiveMinutes) > 0);
+    }
+    assertEquals(1, cooldowns.size());
+
+    advanceMillis(1_000);
+    assertEquals(0, cooldowns.remainingNanos(alice, PORTAL, fiveMinutes));
+    assertEquals(0, cooldowns.size());
+  }
+
+  @Test
+  void cooldownsShouldExpireAfterLongIdlePeriods() {
+    cooldowns.start(alice, PORTAL, TWO_SECONDS);
+    cooldowns.start(bob, PORTAL, new PortalConfigComponent.Cooldown(600, false));
+
+    advanceMillis(TimeUnit.MINUTES.toMillis(5));
+    cooldowns.remainingNanos(alice, PORTAL, TWO_SECONDS);
+    assertEquals(1, cooldowns.size());
+
+    advanceMillis(TimeUnit.MINUTES.toMillis(5));
+    cooldowns.remainingNanos(alice, PORTAL, TWO_SECONDS);
+    assertEquals(0, cooldowns.size());
+  }
+
+  @Test
+  void restartingAnExpiredCooldownBeforeItIsPurgedShouldUseTheNewExpiry() {
+    final var shortCooldown = new PortalConfigComponent.Cooldown(0.9, false);
+    cooldowns.start(alice, PORTAL, shortCooldown);
+
+    advanceMillis(950);
+    assertEquals(0, cooldowns.remainingNanos(alice, PORTAL, shortCooldown));
+    cooldowns.start(alice, PORTAL, shortCooldown);
+
+    advanceMillis(100);
+    assertTrue(cooldowns.remainingNanos(alice, PORTAL, shortCooldown) > 0);
+    assertEquals(1, cooldowns.size());
+
+    advanceMillis(1_000);
+    assertEquals(0, cooldowns.remainingNanos(alice, PORTAL, shortCooldown));
+    assertEquals(0, cooldowns.size());
+  }
+
+  @Test
+  void shouldPurgeManyPlayerPortalPairs() {
+    for (int i = 0; i < 20_000; i++) {
+      final var cooldown = new PortalConfigComponent.Cooldown(1 + i % 30, false);
+      cooldowns.start(UUID.randomUUID(), BlockPositionKey.pack(i % 100, 64, 0), cooldown);
+    }
+    assertEquals(20_000, cooldowns.size());
+
+    advanceMillis(15_000);
+    cooldowns.remainingNanos(alice, PORTAL, TWO_SECONDS);
+    assertEquals(20_000 - 20_000 / 30 * 15, cooldowns.size(), 30);
+
+    advanceMillis(15_000);
+    cooldowns.remainingNanos(alice, PORTAL, TWO_SECONDS);
+    assertEquals(0, cooldowns.size());
+  }
+
+  @Test
+  void numbersShouldBeReleasedWithTheLastCooldown() {
+    final var tenSeconds = new PortalConfigComponent.Cooldown(10, false);
+    cooldowns.start(alice, PORTAL, TWO_SECONDS);
+    cooldowns.start(alice, OTHER_PORTAL, tenSeconds);
+    cooldowns.start(bob, PORTAL, TWO_SECONDS_GLOBAL);
+
+    advanceMillis(2_000);
+    cooldowns.remainingNanos(alice, PORTAL, TWO_SECONDS);
+    assertEquals(1, cooldowns.playerCount());
+    assertEquals(1, cooldowns.portalCount());
+
+    advanceMillis(8_000);
+    cooldowns.remainingNanos(alice, PORTAL, TWO_SECONDS);
+    assertEquals(0, cooldowns.playerCount());
+    assertEquals(0, cooldowns.portalCount());
+  }
+
+  @Test
+  void playerTurnoverShouldNotGrowTheNumbering() {
+    final var longCooldown = new PortalConfigComponent.Cooldown(600, false);
+    cooldowns.start(alice, PORTAL, longCooldown);
+
+    for (int i = 0; i < 200; i++) {
+      cooldowns.start(UUID.randomUUID(), OTHER_PORTAL, TWO_SECONDS);
+      advanceMillis(2_250);
+    }
+    cooldowns.remainingNanos(alice, PORTAL, longCooldown);
+
+    assertEquals(1, cooldowns.size());
+    assertEquals(1, cooldowns.playerCount());
+    assertEquals(1, cooldowns.portalCount());
+    assertTrue(cooldowns.remainingNanos(alice, PORTAL, longCooldown) > 0);
+  }
+}
@@ -0,0 +1,155 @@
+package studio.hiwire.adminportals.portal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.util.BlockEntities;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+class PortalDestinationsTest {
+
+  private static final PortalConfigComponent.TeleportDestination SPAWN =
+      new PortalConfigComponent.TeleportDestination("", 100.5, 64, -0.5, 0, 0);
+
+  private PortalDestinations destinations;
+  private PortalIndex index;
+  private Store<ChunkStore> store;
+  private ComponentType<ChunkStore, PortalConfigComponent> configType;
+  private MockedStatic<PortalConfigComponent> mockedConfig;
+  private MockedStatic<BlockEntities> mockedBlockEntities;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setup() {
+    destinations = new PortalDestinations();
+    index = new PortalIndex();
+    store = mock(Store.class);
+    configType = mock(ComponentType.class);
+    mockedConfig = mockStatic(PortalConfigComponent.class);
+    mockedConfig.when(PortalConfigComponent::getComponentType).thenReturn(configType);
+    mockedBlockEntities = mockStatic(BlockEntities.class);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mockedConfig.close();
+    mockedBlockEntities.close();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Ref<ChunkStore> addPortal(
+      int x, int y, int z, PortalConfigComponent.TeleportDestination destination) {
+    Ref<ChunkStore> ref = mock(Ref.class);
+    final var config = mock(PortalConfigComponent.class);
+    when(config.getTeleportDestination()).thenReturn(destination);
+    when(store.getComponent(ref, configType)).thenReturn(config);
+    mockedBlockEntities
+        .when(() -> BlockEntities.getPosition(store, ref))
+        .thenReturn(new Vector3i(x, y, z));
+    index.add(BlockPositionKey.pack(x, y, z), ref);
+    destinations.update(ref, store);
+    return ref;
+  }
+
+  private List<PortalConfigComponent.TeleportDestination> requested(
+      double x, double y, double z, double radius) {
+    final var result = new ArrayList<PortalConfigComponent.TeleportDestination>();
+    destinations.requestNearby(index, new Vector3d(x, y, z), radius, result::add);
+    return result;
+  }
+
+  @Test
+  void updateShouldRegisterACopyOfTheDestination() {
+    addPortal(10, 64, 20, SPAWN);
+
+    final var registered = destinations.get(BlockPositionKey.pack(10, 64, 20));
+    assertEquals(SPAWN, registered);
+    assertNotSame(SPAWN, registered);
+  }
+
+  @Test
+  void updateShouldDropPortalsWithoutDestination() {
+    final var ref = addPortal(10, 64, 20, SPAWN);
+
+    when(store.getComponent(ref, configType).getTeleportDestination()).thenReturn(null);
+    destinations.update(ref, store);
+
+    assertNull(destinations.get(BlockPositionKey.pack(10, 64, 20)));
+  }
+
+  @Test
+  void removeShouldDropTheDestination() {
+    final var ref = addPortal(10, 64, 20, SPAWN);
+
+    destinations.remove(ref);
+
+    assertNull(destinations.get(BlockPositionKey.pack(10, 64, 20)));
+    assertEquals(List.of(), requested(10.5, 64, 20.5, 8));
+  }
+
+  @Test
+  void onlyPortalsWithinTheRadiusShouldBeRequested() {
+    final var far = new PortalConfigComponent.TeleportDestination("", -500, 64, 0, 0, 0);
+    addPortal(10, 64, 20, SPAWN);
+    addPortal(30, 64, 20, far);
+
+    // Block centers are 7.5 and 12.5 blocks away
+    assertEquals(List.of(SPAWN), requested(18, 64.5, 20.5, 10));
+  }
+
+  @Test
+  void recentlyRequestedPortalsShouldBeSkipped() {
+    addPortal(10, 64, 20, SPAWN);
+
+    assertEquals(List.of(SPAWN), requested(10.5, 64, 20.5, 8));
+    assertEquals(List.of(), requested(10.5, 64, 20.5, 8));
+  }
+
+  @Test
+  void shouldVisitChunksAroundTheDestination() {
+    final var chunks = new ArrayList<Long>();
+    PortalDestinations.forEachChunk(
+        SPAWN, 1, (chunkX, chunkZ) -> chunks.add(ChunkUtil.indexChunk(chunkX, chunkZ)));
+
+    // Negative coordinates round down into the chunk below zero
+    final var centerX = ChunkUtil.chunkCoordinate(100);
+    final var centerZ = ChunkUtil.chunkCoordinate(-1);
+    final var expected = new ArrayList<Long>();
+    for (int x = centerX - 1; x <= centerX + 1; x++) {
+      for (int z = centerZ - 1; z <= centerZ + 1; z++) {
+        expected.add(ChunkUtil.indexChunk(x, z));
+      }
+    }
+    assertEquals(expected, chunks);
+  }
+
+  @Test
+  void zeroChunkRadiusShouldOnlyVisitTheDestinationChunk() {
+    final var chunks = new ArrayList<Long>();
+    PortalDestinations.forEachChunk(
+        SPAWN, 0, (chunkX, chunkZ) -> chunks.add(ChunkUtil.indexChunk(chunkX, chunkZ)));
+
+    assertEquals(
+        List.of(
+            ChunkUtil.indexChunk(ChunkUtil.chunkCoordinate(100), ChunkUtil.chunkCoordinate(-1))),
+        chunks);
+  }
+}
@@ -0,0 +1,95 @@
+package studio.hiwire.adminportals.portal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+class PortalIndexTest {
+
+  private PortalIndex index;
+
+  @BeforeEach
+  void setup() {
+    index = new PortalIndex();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Ref<ChunkStore> addPortal(int x, int y, int z) {
+    Ref<ChunkStore> ref = mock(Ref.class);
+    index.add(BlockPositionKey.pack(x, y, z), ref);
+    return ref;
+  }
+
+  private Set<Long> within(double x, double y, double z, double radius) {
+    final var result = new LongArrayList();
+    index.forEachWithin(x, y, z, radius, result::add);
+    return new LongOpenHashSet(result);
+  }
+
+  @Test
+  void shouldLookUpPortalsByPosition() {
+    final var ref = addPortal(10, 64, -20);
+
+    assertSame(ref, index.get(10, 64, -20));
+    assertEquals(BlockPositionKey.pack(10, 64, -20), index.getPosition(ref));
+    assertNull(index.get(10, 65, -20));
+    assertEquals(1, index.size());
+  }
+
+  @Test
+  void removeShouldDropPortal() {
+    final var ref = addPortal(10, 64, -20);
+
+    index.remove(ref);
+
+    assertNull(index.get(10, 64, -20));
+    assertEquals(Long.MIN_VALUE, index.getPosition(ref));
+    assertEquals(0, index.size());
+    assertEquals(Set.of(), within(10, 64, -20, 100));
+  }
+
+  @Test
+  void replacingPortalAtSamePositionShouldForgetOldRef() {
+    final var old = addPortal(0, 64, 0);
+    final var replacement = addPortal(0, 64, 0);
+
+    assertSame(replacement, index.get(0, 64, 0));
+    assertEquals(Long.MIN_VALUE, index.getPosition(old));
+    assertEquals(1, index.size());
+  }
+
+  @Test
+  void rangeQueryShouldSpanCellsAndRespectRadius() {
+    addPortal(-1, 64, -1);
+    addPortal(31, 64, 0);
+    addPortal(32, 64, 0);
+    addPortal(100, 64, 100);
+
+    assertEquals(
+        Set.of(
+            BlockPositionKey.pack(-1, 64, -1),
+            BlockPositionKey.pack(31, 64, 0),
+            BlockPositionKey.pack(32, 64, 0)),
+        within(16, 64, 0, 20));
+    assertEquals(Set.of(BlockPositionKey.pack(-1, 64, -1)), within(-0.5, 64.5, -0.5, 0.1));
+    assertEquals(Set.of(), within(60, 64, 60, 10));
+  }
+
+  @Test
+  void rangeQueryShouldIncludeHeight() {
+    addPortal(0, 0, 0);
+    addPortal(0, 200, 0);
+
+    assertEquals(Set.of(BlockPositionKey.pack(0, 200, 0)), within(0.5, 195, 0.5, 10));
+  }
+}
@@ -0,0 +1,172 @@
+package studio.hiwire.adminportals.portal;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.shape.Box;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.modules.entity.component.BoundingBox;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+class PortalOccupancyTest {
+
+  private static final long PORTAL = BlockPositionKey.pack(10, 64, 20);
+  private static final long OTHER_PORTAL = BlockPositionKey.pack(40, 64, 20);
+  // The standalone portal hitbox, a thin frame that is wider and taller than its block
+  private static final Box PORTAL_HITBOX = new Box(-0.75, 0, 0.25, 1.75, 4.25, 0.75);
+
+  private PortalOccupancy occupancy;
+  private Ref<EntityStore> playerRef;
+  private Store<EntityStore> store;
+  private TransformComponent transform;
+  private MockedStatic<TransformComponent> mockedTransform;
+  private MockedStatic<BoundingBox> mockedBoundingBox;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setup() {
+    occupancy = new PortalOccupancy();
+    playerRef = mock(Ref.class);
+    store = mock(Store.class);
+    when(playerRef.getIndex()).thenReturn(7);
+    when(playerRef.isValid()).thenReturn(true);
+
+    ComponentType<EntityStore, TransformComponent> transformType = mock(ComponentType.class);
+    transform = mock(TransformComponent.class);
+    when(store.getComponent(playerRef, transformType)).thenReturn(transform);
+    mockedTransform = mockStatic(TransformComponent.class);
+    mockedTransform.when(TransformComponent::getComponentType).thenReturn(transformType);
+
+    ComponentType<EntityStore, BoundingBox> boundingBoxType = mock(ComponentType.class);
+    BoundingBox boundingBox = mock(BoundingBox.class);
+    when(boundingBox.getBoundingBox()).thenReturn(new Box(-0.3, 0, -0.3, 0.3, 1.8, 0.3));
+    when(store.getComponent(playerRef, boundingBoxType)).thenReturn(boundingBox);
+    mockedBoundingBox = mockStatic(BoundingBox.class);
+    mockedBoundingBox.when(BoundingBox::getComponentType).thenReturn(boundingBoxType);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mockedTransform.close();
+    mockedBoundingBox.close();
+  }
+
+  private void standAt(double x, double y, double z) {
+    when(transform.getPosition()).thenReturn(new Vector3d(x, y, z));
+  }
+
+  @Test
+  void collisionShouldOnlyFireOnEnter() {
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+    assertFalse(occupancy.tryActivate(playerRef, PORTAL, true));
+  }
+
+  @Test
+  void collisionShouldFireForDifferentPortals() {
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+    assertTrue(occupancy.tryActivate(playerRef, OTHER_PORTAL, true));
+  }
+
+  @Test
+  void useAndCollisionInSameTickShouldFireOnce() {
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+    assertFalse(occupancy.tryActivate(playerRef, PORTAL, false));
+  }
+
+  @Test
+  void standingInPortalShouldOnlyAllowUseInLaterTicks() {
+    standAt(10.5, 64, 20.5);
+
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+    occupancy.tick(store);
+
+    assertFalse(occupancy.tryActivate(playerRef, PORTAL, true));
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, false));
+  }
+
+  @Test
+  void collisionShouldReArmWhenPlayerLeaves() {
+    standAt(20.5, 64, 20.5);
+
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+    occupancy.tick(store);
+
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+  }
+
+  @Test
+  void playerInHitboxOutsideTheBlockShouldStayInPortal() {
+    standAt(10.5, 64, 20.5);
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+    occupancy.setHitbox(playerRef, PORTAL, PORTAL_HITBOX);
+
+    // Past the block's side, but still within the hitbox that reaches 0.75 blocks beyond it
+    standAt(12.0, 66, 20.5);
+    occupancy.tick(store);
+
+    assertFalse(occupancy.tryActivate(playerRef, PORTAL, true));
+  }
+
+  @Test
+  void collisionShouldReArmOnlyOnceClearOfTheHitbox() {
+    standAt(10.5, 64, 20.5);
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+    occupancy.setHitbox(playerRef, PORTAL, PORTAL_HITBOX);
+
+    // Just outside the hitbox, but within the margin
+    standAt(10.5, 64, 20.75 + 0.3 + PortalOccupancy.EXIT_MARGIN - 0.05);
+    occupancy.tick(store);
+    assertFalse(occupancy.tryActivate(playerRef, PORTAL, true));
+
+    standAt(10.5, 64, 20.75 + 0.3 + PortalOccupancy.EXIT_MARGIN + 0.05);
+    occupancy.tick(store);
+    standAt(10.5, 64, 20.5);
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+  }
+
+  @Test
+  void hitboxShouldBeKeptUntilThePlayerLeaves() {
+    standAt(10.5, 64, 20.5);
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+    occupancy.setHitbox(playerRef, PORTAL, PORTAL_HITBOX);
+    occupancy.tick(store);
+
+    standAt(10.5, 67, 20.5);
+    occupancy.tick(store);
+    assertFalse(occupancy.tryActivate(playerRef, PORTAL, true));
+
+    standAt(10.5, 64 + 4.25 + PortalOccupancy.EXIT_MARGIN + 0.05, 20.5);
+    occupancy.tick(store);
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+  }
+
+  @Test
+  void cancelledActivationShouldReArmCollision() {
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+    occupancy.cancelActivation(playerRef, PORTAL);
+
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+  }
+
+  @Test
+  void collisionShouldReArmWhenPlayerIsGone() {
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+
+    when(playerRef.isValid()).thenReturn(false);
+    occupancy.tick(store);
+
+    assertTrue(occupancy.tryActivate(playerRef, PORTAL, true));
+  }
+}
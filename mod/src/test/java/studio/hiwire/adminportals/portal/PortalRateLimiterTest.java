@@ -0,0 +1,112 @@
+package studio.hiwire.adminportals.portal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+class PortalRateLimiterTest {
+
+  private static final long PORTAL = BlockPositionKey.pack(10, 64, 20);
+  private static final long OTHER_PORTAL = BlockPositionKey.pack(40, 64, 20);
+  private static final PortalConfigComponent.RateLimit TWO_PER_SECOND =
+      new PortalConfigComponent.RateLimit(2, 3);
+
+  private long now;
+  private PortalRateLimiter rateLimiter;
+
+  @BeforeEach
+  void setup() {
+    now = TimeUnit.HOURS.toNanos(1);
+    rateLimiter = new PortalRateLimiter(() -> now);
+  }
+
+  private void advanceMillis(long millis) {
+    now += TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  @Test
+  void shouldAllowBurstAndThenReject() {
+    assertTrue(rateLimiter.tryAcquire(PORTAL, TWO_PER_SECOND));
+    assertTrue(rateLimiter.tryAcquire(PORTAL, TWO_PER_SECOND));
+    assertTrue(rateLimiter.tryAcquire(PORTAL, TWO_PER_SECOND));
+    assertFalse(rateLimiter.tryAcquire(PORTAL, TWO_PER_SECOND));
+  }
+
+  @Test
+  void shouldRefillAtConfiguredRate() {
+    for (int i = 0; i < 3; i++) {
+      assertTrue(rateLimiter.tryAcquire(PORTAL, TWO_PER_SECOND));
+    }
+
+    advanceMillis(499);
+    assertFalse(rateLimiter.tryAcquire(PORTAL, TWO_PER_SECOND));
+    advanceMillis(1);
+    assertTrue(rateLimiter.tryAcquire(PORTAL, TWO_PER_SECOND));
+    assertFalse(rateLimiter.tryAcquire(PORTAL, TWO_PER_SECOND));
+  }
+
+  @Test
+  void shouldNotRefillBeyondBurst() {
+    assertTrue(rateLimiter.tryAcquire(PORTAL, TWO_PER_SECOND));
+    advanceMillis(60_000);
+
+    for (int i = 0; i < 3; i++) {
+      assertTrue(rateLimiter.tryAcquire(PORTAL, TWO_PER_SECOND));
+    }
+    assertFalse(rateLimiter.tryAcquire(PORTAL, TWO_PER_SECOND));
+  }
+
+  @Test
+  void portalsShouldHaveIndependentBuckets() {
+    final var single = new PortalConfigComponent.RateLimit(1, 1);
+
+    assertTrue(rateLimiter.tryAcquire(PORTAL, single));
+    assertFalse(rateLimiter.tryAcquire(PORTAL, single));
+    assertTrue(rateLimiter.tryAcquire(OTHER_PORTAL, single));
+  }
+
+  @Test
+  void shouldTreatMissingBurstAsOne() {
+    final var noBurst = new PortalConfigComponent.RateLimit(1, 0);
+
+    assertTrue(rateLimiter.tryAcquire(PORTAL, noBurst));
+    assertFalse(rateLimiter.tryAcquire(PORTAL, noBurst));
+  }
+
+  @Test
+  void shouldPurgeFullBuckets() {
+    assertTrue(rateLimiter.tryAcquire(PORTAL, TWO_PER_SECOND));
+    assertEquals(1, rateLimiter.size());
+
+    advanceMillis(60_000);
+    assertTrue(rateLimiter.tryAcquire(OTHER_PORTAL, TWO_PER_SECOND));
+
+    assertEquals(1, rateLimiter.size());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void busyMessagesShouldBeThrottledPerPlayer() {
+    Ref<EntityStore> player = mock(Ref.class);
+    Ref<EntityStore> otherPlayer = mock(Ref.class);
+    when(player.getIndex()).thenReturn(7);
+    when(otherPlayer.getIndex()).thenReturn(8);
+
+    assertTrue(rateLimiter.shouldNotifyBusy(player));
+    assertFalse(rateLimiter.shouldNotifyBusy(player));
+    assertTrue(rateLimiter.shouldNotifyBusy(otherPlayer));
+
+    advanceMillis(2_000);
+    assertTrue(rateLimiter.shouldNotifyBusy(player));
+  }
+}
@@ -0,0 +1,93 @@
+package studio.hiwire.adminportals.portal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import studio.hiwire.adminportals.placeholder.PlaceholderManager;
+import studio.hiwire.adminportals.util.BlockPositionKey;
+
+class PortalValidationTest {
+
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+  private PlaceholderManager placeholderManager;
+
+  @BeforeEach
+  void setup() {
+    placeholderManager = new PlaceholderManager();
+  }
+
+  @AfterEach
+  void teardown() {
+    pool.shutdownNow();
+  }
+
+  private static PortalValidation.PortalCommands portal(int x, String... commands) {
+    return new PortalValidation.PortalCommands(
+        "world", BlockPositionKey.pack(x, 64, -x), List.of(commands));
+  }
+
+  @Test
+  void shouldReportPortalsWithUnknownPlaceholders() {
+    final var broken =
+        PortalValidation.validate(
+            pool,
+            placeholderManager,
+            List.of(
+                portal(1, "say {PlayerUsername}"),
+                portal(2, "give {PlayerUsername} {Rank}", "tp {Home} {PosX}"),
+                portal(3, "say hello")));
+
+    assertEquals(1, broken.size());
+    final var portal = broken.get(0);
+    assertEquals("world", portal.world());
+    assertEquals(2, portal.x());
+    assertEquals(64, portal.y());
+    assertEquals(-2, portal.z());
+    assertEquals(Set.of("Rank", "Home"), portal.missing());
+  }
+
+  @Test
+  void shouldKeepPortalOrderAcrossTasks() {
+    final var portals = new ArrayList<PortalValidation.PortalCommands>();
+    for (int i = 0; i < 5_000; i++) {
+      portals.add(i % 7 == 0 ? portal(i, "say {Missing" + (i % 3) + "}") : portal(i, "say {PosX}"));
+    }
+
+    final var broken = PortalValidation.validate(pool, placeholderManager, portals);
+
+    assertEquals(715, broken.size());
+    for (int i = 0; i < broken.size(); i++) {
+      assertEquals(i * 7, broken.get(i).x());
+    }
+  }
+
+  @Test
+  void shouldValidateAgainstCurrentRegistry() {
+    placeholderManager.register("Rank", ctx -> "admin");
+    final var portals = List.of(portal(1, "give {Rank}"));
+    assertTrue(PortalValidation.validate(pool, placeholderManager, portals).isEmpty());
+
+    placeholderManager.unregister("Rank");
+    assertEquals(1, PortalValidation.validate(pool, placeholderManager, portals).size());
+  }
+
+  @Test
+  void unregisterShouldNotifyListeners() {
+    final var notified = new AtomicInteger();
+    placeholderManager.addUnregisterListener(name -> notified.incrementAndGet());
+    placeholderManager.register("Rank", ctx -> "admin");
+
+    placeholderManager.unregister("Rank");
+    placeholderManager.unregister("Rank");
+
+    assertEquals(1, notified.get());
+  }
+}
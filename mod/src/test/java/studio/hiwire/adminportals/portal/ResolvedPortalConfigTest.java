@@ -0,0 +1,133 @@
+package studio.hiwire.adminportals.portal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import studio.hiwire.adminportals.component.PortalConfigComponent;
+import studio.hiwire.adminportals.placeholder.PlaceholderManager;
+
+class ResolvedPortalConfigTest {
+
+  private PlaceholderManager placeholderManager;
+
+  @BeforeEach
+  void setup() {
+    placeholderManager = new PlaceholderManager();
+    placeholderManager.register("Name", ctx -> "Steve");
+  }
+
+  private static PortalConfigComponent withCommands(PortalConfigComponent.CommandEntry... entries) {
+    return new PortalConfigComponent(
+        PortalConfigComponent.Type.Command,
+        null,
+        null,
+        entries,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null);
+  }
+
+  @Test
+  void shouldMigrateLegacyCommandAndApplyDefaults() {
+    PortalConfigComponent component =
+        new PortalConfigComponent(
+            null, "legacy command", null, null, null, null, false, null, null, null);
+
+    ResolvedPortalConfig resolved = ResolvedPortalConfig.of(component, placeholderManager);
+
+    assertEquals(PortalConfigComponent.DEFAULT_TYPE, resolved.getType());
+    assertEquals(1, resolved.getCommands().size());
+    assertEquals("legacy command", resolved.getCommands().get(0).command());
+    assertEquals(
+        PortalConfigComponent.DEFAULT_COMMAND_SENDER, resolved.getCommands().get(0).sender());
+    assertEquals(
+        PortalConfigComponent.DEFAULT_INTERACTION_SOUND_EFFECT_ID,
+        resolved.getInteractionSoundEffectId());
+    assertTrue(resolved.isCollisionInteraction());
+    assertFalse(resolved.isUseInteraction());
+  }
+
+  @Test
+  void shouldNotShareCommandEntriesWithComponent() {
+    PortalConfigComponent.CommandEntry entry =
+        new PortalConfigComponent.CommandEntry("cmd", PortalConfigComponent.CommandSender.Server);
+
+    ResolvedPortalConfig resolved =
+        ResolvedPortalConfig.of(withCommands(entry), placeholderManager);
+    entry.setCommand("changed");
+    entry.setCommandSender(PortalConfigComponent.CommandSender.Player);
+
+    assertEquals("cmd", resolved.getCommands().get(0).command());
+    assertEquals(
+        PortalConfigComponent.CommandSender.Server, resolved.getCommands().get(0).sender());
+  }
+
+  @Test
+  void commandListShouldBeUnmodifiable() {
+    ResolvedPortalConfig resolved =
+        ResolvedPortalConfig.of(new PortalConfigComponent(), placeholderManager);
+
+    assertThrows(UnsupportedOperationException.class, () -> resolved.getCommands().clear());
+  }
+
+  @Test
+  void blankCommandsShouldBeDropped() {
+    ResolvedPortalConfig resolved =
+        ResolvedPortalConfig.of(
+            withCommands(
+                new PortalConfigComponent.CommandEntry(
+                    " ", PortalConfigComponent.CommandSender.Server),
+                new PortalConfigComponent.CommandEntry(
+                    "cmd", PortalConfigComponent.CommandSender.Server),
+                new PortalConfigComponent.CommandEntry(
+                    null, PortalConfigComponent.CommandSender.Server)),
+            placeholderManager);
+
+    assertEquals(1, resolved.getCommands().size());
+    assertEquals("cmd", resolved.getCommands().get(0).command());
+  }
+
+  @Test
+  void commandsShouldBeCompiled() {
+    ResolvedPortalConfig resolved =
+        ResolvedPortalConfig.of(
+            withCommands(
+                new PortalConfigComponent.CommandEntry(
+                    "warp {Name}", PortalConfigComponent.CommandSender.Server),
+                new PortalConfigComponent.CommandEntry(
+                    "spawn {Unknown}", PortalConfigComponent.CommandSender.Server)),
+            placeholderManager);
+
+    final var placeholder = resolved.getCommands().get(0);
+    assertFalse(placeholder.literal());
+    assertEquals("warp Steve", placeholder.render(null, null));
+
+    // Unknown placeholders are kept as text, so the command is dispatched as is
+    final var unknown = resolved.getCommands().get(1);
+    assertTrue(unknown.literal());
+    assertSame(unknown.command(), unknown.render(null, null));
+  }
+
+  @Test
+  void registryChangesShouldOutdateTheTemplates() {
+    ResolvedPortalConfig resolved =
+        ResolvedPortalConfig.of(
+            withCommands(
+                new PortalConfigComponent.CommandEntry(
+                    "spawn {Target}", PortalConfigComponent.CommandSender.Server)),
+            placeholderManager);
+    assertTrue(resolved.isCurrent(placeholderManager));
+
+    placeholderManager.register("Target", ctx -> "hub");
+
+    assertFalse(resolved.isCurrent(placeholderManager));
+  }
+}
@@ -0,0 +1,37 @@
+package studio.hiwire.adminportals.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+class BlockPositionKeyTest {
+
+  @Test
+  void shouldRoundTripPositiveCoordinates() {
+    long key = BlockPositionKey.pack(1234, 200, 5678);
+
+    assertEquals(1234, BlockPositionKey.x(key));
+    assertEquals(200, BlockPositionKey.y(key));
+    assertEquals(5678, BlockPositionKey.z(key));
+  }
+
+  @Test
+  void shouldRoundTripNegativeCoordinates() {
+    long key = BlockPositionKey.pack(-30_000_000, -64, -1);
+
+    assertEquals(-30_000_000, BlockPositionKey.x(key));
+    assertEquals(-64, BlockPositionKey.y(key));
+    assertEquals(-1, BlockPositionKey.z(key));
+  }
+
+  @Test
+  void shouldProduceDistinctKeysForNeighbours() {
+    long origin = BlockPositionKey.pack(0, 0, 0);
+
+    assertNotEquals(origin, BlockPositionKey.pack(1, 0, 0));
+    assertNotEquals(origin, BlockPositionKey.pack(0, 1, 0));
+    assertNotEquals(origin, BlockPositionKey.pack(0, 0, 1));
+    assertNotEquals(BlockPositionKey.pack(-1, 0, 0), BlockPositionKey.pack(0, 0, -1));
+  }
+}
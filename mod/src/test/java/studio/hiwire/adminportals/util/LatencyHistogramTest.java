@@ -0,0 +1,92 @@
+package studio.hiwire.adminportals.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void emptyHistogramShouldReportZero() {
+    final var histogram = new LatencyHistogram();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    assertEquals(0, histogram.getMax());
+  }
+
+  @Test
+  void percentilesShouldBeWithinBucketPrecision() {
+    final var histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1_000L);
+    }
+
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1_000_000, histogram.getMax());
+    assertWithin(500_000, histogram.getValueAtPercentile(50));
+    assertWithin(990_000, histogram.getValueAtPercentile(99));
+    assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  void bucketsShouldCoverAllValues() {
+    for (long value : new long[] {0, 1, 7, 8, 9, 15, 16, 17, 1_000, 123_456_789, (1L << 40) - 1}) {
+      final var index = LatencyHistogram.bucketIndex(value);
+      assertTrue(index < LatencyHistogram.BUCKETS);
+      assertTrue(LatencyHistogram.bucketUpperBound(index) >= value);
+      if (index > 0) {
+        assertTrue(LatencyHistogram.bucketUpperBound(index - 1) < value);
+      }
+    }
+  }
+
+  @Test
+  void shouldCapValuesAndIgnoreNegatives() {
+    final var histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+
+    assertEquals(2, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    assertEquals((1L << 40) - 1, histogram.getMax());
+  }
+
+  @Test
+  void concurrentRecordsShouldAllBeCounted() throws Exception {
+    final var histogram = new LatencyHistogram();
+    final var threads = new Thread[8];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] =
+          new Thread(
+              () -> {
+                for (int i = 0; i < 10_000; i++) {
+                  histogram.record(i);
+                }
+              });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(80_000, histogram.getCount());
+  }
+
+  @Test
+  void resetShouldClearValues() {
+    final var histogram = new LatencyHistogram();
+    histogram.record(42);
+    histogram.reset();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMax());
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    assertTrue(
+        Math.abs(actual - expected) <= expected / 8,
+        () -> "expected ~" + expected + " but was " + actual);
+  }
+}